@@ -2,8 +2,10 @@ package br.com.fatec.modulo1.pessoa_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PessoaApiApplication {
 
 	public static void main(String[] args) {
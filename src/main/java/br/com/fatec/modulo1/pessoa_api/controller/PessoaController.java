@@ -22,8 +22,13 @@ public class PessoaController {
     private static final Logger logger = LoggerFactory.getLogger(PessoaController.class);
 
     @GetMapping
-    public ResponseEntity<Page<Pessoa>> listar(@RequestParam(defaultValue = "0") int pagina) {
-        logger.debug("Controller: listando pessoas - página {}", pagina);
+    public ResponseEntity<Page<?>> listar(
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(required = false) String campos) {
+        logger.debug("Controller: listando pessoas - página {} - campos {}", pagina, campos);
+        if (campos != null) {
+            return ResponseEntity.ok(service.listarCampos(pagina, campos));
+        }
         Page<Pessoa> pessoas = service.listar(pagina);
         return ResponseEntity.ok(pessoas);
     }
@@ -0,0 +1,36 @@
+package br.com.fatec.modulo1.pessoa_api.controller;
+
+import br.com.fatec.modulo1.pessoa_api.events.PessoaEventStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping(path = "/api/eventos")
+public class PessoaEventController {
+    private final PessoaEventStream eventStream;
+
+    public PessoaEventController(PessoaEventStream eventStream) {
+        this.eventStream = eventStream;
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(PessoaEventController.class);
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> assinar(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        logger.debug("Controller: assinando feed de eventos - Last-Event-ID {}", lastEventId);
+        if (!eventStream.aceitaNovasAssinaturas()) {
+            logger.warn("Limite de assinantes do feed de eventos atingido");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(eventStream.assinar(lastEventId));
+    }
+}
@@ -22,7 +22,11 @@ public class ErrorResponse {
     }
 
     public ErrorResponse(int status, String error, String message, String path) {
-        this();
+        this(LocalDateTime.now(), status, error, message, path);
+    }
+
+    public ErrorResponse(LocalDateTime timestamp, int status, String error, String message, String path) {
+        this.timestamp = timestamp;
         this.status = status;
         this.error = error;
         this.message = message;
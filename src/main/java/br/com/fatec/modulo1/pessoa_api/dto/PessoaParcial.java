@@ -0,0 +1,18 @@
+package br.com.fatec.modulo1.pessoa_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção de Pessoa usada na listagem com ?campos=. Só os campos pedidos são
+ * selecionados no banco; os demais ficam nulos e não são serializados.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PessoaParcial(
+        Long id,
+        @JsonFormat(pattern = "dd/MM/yyyy") LocalDate dt_nascimento,
+        String nome,
+        Boolean ativo) {
+}
@@ -0,0 +1,97 @@
+package br.com.fatec.modulo1.pessoa_api.duplicates;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sobre chaves de texto, seguro para uso concorrente.
+ *
+ * Dimensionado pela quantidade esperada de elementos e pela taxa de falso
+ * positivo desejada. As k posições de cada chave saem de dois hashes de 64
+ * bits combinados (h1 + i * h2). Não há remoção: chaves que deixam de
+ * existir continuam no filtro até a próxima reconstrução.
+ */
+class BloomFilter {
+    private final AtomicLongArray palavras;
+    private final long capacidade;
+    private final long bits;
+    private final int hashes;
+
+    BloomFilter(long elementosEsperados, double taxaFalsoPositivo) {
+        long n = Math.max(1, elementosEsperados);
+        this.capacidade = n;
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palavrasNecessarias = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.palavras = new AtomicLongArray(palavrasNecessarias);
+        this.bits = palavrasNecessarias * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    }
+
+    void adicionar(String chave) {
+        long h = hash(chave);
+        long h1 = misturar(h);
+        long h2 = misturar(h ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = palavras.get(indice);
+            while ((atual & mascara) == 0 && !palavras.compareAndSet(indice, atual, atual | mascara)) {
+                atual = palavras.get(indice);
+            }
+        }
+    }
+
+    boolean podeConter(String chave) {
+        long h = hash(chave);
+        long h1 = misturar(h);
+        long h2 = misturar(h ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Taxa de falso positivo esperada com a ocupação atual: (bits ligados / m)^k.
+     */
+    double taxaFalsoPositivoEstimada() {
+        long ligados = 0;
+        for (int i = 0; i < palavras.length(); i++) {
+            ligados += Long.bitCount(palavras.get(i));
+        }
+        return Math.pow((double) ligados / bits, hashes);
+    }
+
+    long bytes() {
+        return bits / 8;
+    }
+
+    long getCapacidade() {
+        return capacidade;
+    }
+
+    int getHashes() {
+        return hashes;
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8
+    private static long hash(String chave) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Finalizador do SplitMix64: espalha os bits do FNV
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,225 @@
+package br.com.fatec.modulo1.pessoa_api.duplicates;
+
+import br.com.fatec.modulo1.pessoa_api.events.PessoaChangedEvent;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detecta cadastro duplicado (mesmo nome e data de nascimento) sem consultar
+ * o banco a cada criação.
+ *
+ * Um filtro de Bloom com todas as pessoas é montado na inicialização e
+ * recebe cada pessoa criada ou atualizada. Se o filtro diz que a chave não
+ * existe, ela com certeza não existe; só num acerto do filtro o banco é
+ * consultado para confirmar. Até a primeira carga terminar, toda criação é
+ * confirmada no banco.
+ *
+ * A chave é a mesma que os backends comparam (Pessoa.chaveDuplicidade, que
+ * ignora maiúsculas, acentos e espaços nas pontas). O filtro só evita a
+ * consulta: quem garante a regra sob concorrência é a restrição única de
+ * cada backend. Como o filtro não remove chaves, ele é reconstruído
+ * periodicamente.
+ */
+@Component
+// Depois do rebalanceamento de shards, antes do warm-up
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DuplicatePessoaDetector implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicatePessoaDetector.class);
+
+    private final PessoaStore pessoaStore;
+    private final long elementosEsperados;
+    private final double taxaFalsoPositivo;
+    private final AtomicLong negativos = new AtomicLong();
+    private final AtomicLong falsosPositivos = new AtomicLong();
+    private final Counter duplicadas;
+    private final Timer reconstrucoes;
+    private final Object troca = new Object();
+    private volatile BloomFilter filtro;
+    private BloomFilter emConstrucao;
+    private long ultimaQuantidade;
+
+    public DuplicatePessoaDetector(
+            PessoaStore pessoaStore,
+            @Value("${pessoa-api.duplicates.expected-insertions:1000000}") long elementosEsperados,
+            @Value("${pessoa-api.duplicates.false-positive-rate:0.01}") double taxaFalsoPositivo,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.pessoaStore = pessoaStore;
+        this.elementosEsperados = elementosEsperados;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("pessoa.duplicidade.falso_positivo.taxa", this, DuplicatePessoaDetector::taxaFalsoPositivoObservada)
+                    .description("Acertos do filtro não confirmados no banco / criações sem duplicata")
+                    .register(registry);
+            Gauge.builder("pessoa.duplicidade.falso_positivo.estimada", this,
+                            d -> d.filtro != null ? d.filtro.taxaFalsoPositivoEstimada() : Double.NaN)
+                    .description("Taxa de falso positivo esperada com a ocupação atual do filtro")
+                    .register(registry);
+            Gauge.builder("pessoa.duplicidade.filtro.bytes", this, d -> d.filtro != null ? d.filtro.bytes() : 0)
+                    .description("Memória ocupada pelo filtro de duplicidade")
+                    .baseUnit("bytes")
+                    .register(registry);
+            this.duplicadas = Counter.builder("pessoa.duplicidade.rejeitadas")
+                    .description("Criações rejeitadas por duplicidade confirmada")
+                    .register(registry);
+            this.reconstrucoes = Timer.builder("pessoa.duplicidade.reconstrucao")
+                    .description("Tempo de carga do filtro de duplicidade a partir do banco")
+                    .register(registry);
+        } else {
+            this.duplicadas = null;
+            this.reconstrucoes = null;
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            long preenchidas = pessoaStore.preencherChavesDeDuplicidade();
+            if (preenchidas > 0) {
+                logger.info("Chave de duplicidade preenchida em {} pessoas já cadastradas", preenchidas);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Falha ao preencher a chave de duplicidade das pessoas já cadastradas", e);
+        }
+        reconstruir();
+    }
+
+    /**
+     * Indica se já existe pessoa com o mesmo nome e data de nascimento.
+     */
+    public boolean existeDuplicada(String nome, LocalDate dtNascimento) {
+        if (nome == null || dtNascimento == null) {
+            return false;
+        }
+
+        BloomFilter atual = filtro;
+        if (atual != null && !atual.podeConter(chave(nome, dtNascimento))) {
+            negativos.incrementAndGet();
+            return false;
+        }
+
+        boolean existe = pessoaStore.existsByNomeAndNascimento(nome, dtNascimento);
+        if (existe) {
+            if (duplicadas != null) {
+                duplicadas.increment();
+            }
+        } else if (atual != null) {
+            falsosPositivos.incrementAndGet();
+            logger.debug("Falso positivo do filtro de duplicidade: {} / {}", nome, dtNascimento);
+        }
+        return existe;
+    }
+
+    // Depois do commit: uma carga que começar em seguida já enxerga a linha
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPessoaChanged(PessoaChangedEvent evento) {
+        Pessoa pessoa = evento.pessoa();
+        if (pessoa != null) {
+            registrar(pessoa.getNome(), pessoa.getDt_nascimento());
+        }
+    }
+
+    /**
+     * Monta um filtro novo a partir do banco e troca o atual por ele. As
+     * escritas feitas durante a carga entram nos dois filtros. Roda no pool
+     * de spring.task.scheduling, sem segurar o heartbeat do SSE.
+     */
+    @Scheduled(fixedDelayString = "${pessoa-api.duplicates.rebuild-interval-ms:3600000}",
+            initialDelayString = "${pessoa-api.duplicates.rebuild-interval-ms:3600000}")
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        try {
+            // Dimensionado pela última carga, com folga; se a tabela já passou
+            // da capacidade, carrega de novo com o tamanho certo
+            long capacidade = Math.max(elementosEsperados, ultimaQuantidade * 2);
+            BloomFilter novo;
+            long quantidade;
+            do {
+                novo = new BloomFilter(capacidade, taxaFalsoPositivo);
+                quantidade = carregar(novo);
+                capacidade = quantidade * 2;
+            } while (quantidade > novo.getCapacidade());
+
+            synchronized (troca) {
+                filtro = novo;
+                emConstrucao = null;
+            }
+            ultimaQuantidade = quantidade;
+            negativos.set(0);
+            falsosPositivos.set(0);
+
+            long duracao = System.nanoTime() - inicio;
+            if (reconstrucoes != null) {
+                reconstrucoes.record(duracao, TimeUnit.NANOSECONDS);
+            }
+            logger.info("Filtro de duplicidade carregado: {} pessoas, {} KB, {} hashes ({}ms)",
+                    quantidade, novo.bytes() / 1024, novo.getHashes(), TimeUnit.NANOSECONDS.toMillis(duracao));
+        } catch (RuntimeException e) {
+            // Sem filtro válido, as criações continuam corretas: vão ao banco
+            logger.error("Falha ao carregar o filtro de duplicidade; mantendo o filtro anterior", e);
+        } finally {
+            synchronized (troca) {
+                emConstrucao = null;
+            }
+        }
+    }
+
+    private long carregar(BloomFilter novo) {
+        synchronized (troca) {
+            emConstrucao = novo;
+        }
+        long[] quantidade = {0};
+        pessoaStore.percorrerNomesENascimentos((nome, dt) -> {
+            quantidade[0]++;
+            if (nome != null && dt != null) {
+                novo.adicionar(chave(nome, dt));
+            }
+        });
+        return quantidade[0];
+    }
+
+    private void registrar(String nome, LocalDate dtNascimento) {
+        if (nome == null || dtNascimento == null) {
+            return;
+        }
+        String chave = chave(nome, dtNascimento);
+        synchronized (troca) {
+            if (filtro != null) {
+                filtro.adicionar(chave);
+            }
+            if (emConstrucao != null) {
+                emConstrucao.adicionar(chave);
+            }
+        }
+    }
+
+    private double taxaFalsoPositivoObservada() {
+        long fp = falsosPositivos.get();
+        long total = fp + negativos.get();
+        return total == 0 ? 0 : (double) fp / total;
+    }
+
+    private static String chave(String nome, LocalDate dtNascimento) {
+        return Pessoa.chaveDuplicidade(nome, dtNascimento);
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.fatec.modulo1.pessoa_api.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffer circular com os últimos eventos publicados, usado para retomar
+ * assinaturas a partir do Last-Event-ID. Não é thread-safe: o acesso é
+ * sincronizado pelo PessoaEventStream.
+ */
+class EventRingBuffer {
+    private final PessoaEvent[] eventos;
+    private long ultimaSequencia;
+    private int tamanho;
+
+    EventRingBuffer(int capacidade, long sequenciaInicial) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("Capacidade do buffer deve ser positiva");
+        }
+        this.eventos = new PessoaEvent[capacidade];
+        this.ultimaSequencia = sequenciaInicial;
+    }
+
+    void adicionar(PessoaEvent evento) {
+        eventos[indice(evento.sequencia())] = evento;
+        ultimaSequencia = evento.sequencia();
+        if (tamanho < eventos.length) {
+            tamanho++;
+        }
+    }
+
+    long ultimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    /**
+     * Retorna os eventos com sequência maior que a informada, ou null quando
+     * parte deles já foi sobrescrita (ou a sequência é de outra execução) e o
+     * cliente precisa ressincronizar.
+     */
+    List<PessoaEvent> desde(long sequencia) {
+        if (sequencia == ultimaSequencia) {
+            return List.of();
+        }
+        if (sequencia > ultimaSequencia || ultimaSequencia - sequencia > tamanho) {
+            return null;
+        }
+        List<PessoaEvent> resultado = new ArrayList<>((int) (ultimaSequencia - sequencia));
+        for (long seq = sequencia + 1; seq <= ultimaSequencia; seq++) {
+            resultado.add(eventos[indice(seq)]);
+        }
+        return resultado;
+    }
+
+    private int indice(long sequencia) {
+        return (int) Math.floorMod(sequencia, (long) eventos.length);
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.fatec.modulo1.pessoa_api.events;
+
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+
+/**
+ * Evento de aplicação publicado pelo PessoaService. Só é repassado ao feed
+ * SSE depois do commit da transação que o originou.
+ */
+public record PessoaChangedEvent(PessoaEventType tipo, Long pessoaId, Pessoa pessoa) {
+}
@@ -0,0 +1,14 @@
+package br.com.fatec.modulo1.pessoa_api.events;
+
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Evento entregue aos assinantes do feed. A sequência é monotônica e é usada
+ * como id do evento SSE (Last-Event-ID).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PessoaEvent(long sequencia, PessoaEventType tipo, Long pessoaId, Pessoa pessoa, Instant timestamp) {
+}
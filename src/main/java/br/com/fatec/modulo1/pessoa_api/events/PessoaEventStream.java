@@ -0,0 +1,324 @@
+package br.com.fatec.modulo1.pessoa_api.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feed de alterações de pessoas via Server-Sent Events.
+ *
+ * Cada evento recebe uma sequência monotônica e fica num buffer circular para
+ * permitir a retomada com Last-Event-ID. As conexões ficam em modo assíncrono
+ * no servlet container e o envio é feito por um pool pequeno de threads, então
+ * assinantes ociosos não ocupam threads. Cada assinante tem uma fila limitada;
+ * quem não consome a tempo é desconectado e deve reconectar com Last-Event-ID.
+ *
+ * Uma escrita que passa de write-timeout-ms também desconecta o assinante: um
+ * vigia interrompe a thread de envio presa nele. O encerramento da conexão roda
+ * fora do pool de envio, porque complete() espera a escrita em andamento
+ * terminar; assim um cliente travado não tira threads dos demais.
+ */
+@Component
+public class PessoaEventStream {
+    private static final Logger logger = LoggerFactory.getLogger(PessoaEventStream.class);
+
+    private static final int MAX_EVENTOS_POR_ENVIO = 64;
+
+    private final Object lock = new Object();
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final EventRingBuffer buffer;
+    private final ExecutorService envio;
+    private final ExecutorService desconexao;
+    private final ScheduledExecutorService vigia;
+    private final Set<Assinante> emEnvio = ConcurrentHashMap.newKeySet();
+    private final int capacidadeFila;
+    private final int maxAssinantes;
+    private final long timeoutMs;
+    private final long timeoutEscritaMs;
+    private final Counter desconexoesPorLentidao;
+    private final Counter desconexoesPorEscritaLenta;
+    private long sequencia;
+
+    public PessoaEventStream(
+            @Value("${pessoa-api.events.buffer-size:1024}") int tamanhoBuffer,
+            @Value("${pessoa-api.events.subscriber-queue-size:256}") int capacidadeFila,
+            @Value("${pessoa-api.events.max-subscribers:10000}") int maxAssinantes,
+            @Value("${pessoa-api.events.timeout-ms:1800000}") long timeoutMs,
+            @Value("${pessoa-api.events.sender-threads:4}") int threadsEnvio,
+            @Value("${pessoa-api.events.write-timeout-ms:5000}") long timeoutEscritaMs,
+            MeterRegistry meterRegistry) {
+        // Sequência baseada no relógio: continua crescente entre reinícios, e
+        // um Last-Event-ID de uma execução anterior cai fora do buffer.
+        this.sequencia = System.currentTimeMillis() * 1000;
+        this.buffer = new EventRingBuffer(tamanhoBuffer, sequencia);
+        this.capacidadeFila = capacidadeFila;
+        this.maxAssinantes = maxAssinantes;
+        this.timeoutMs = timeoutMs;
+        this.timeoutEscritaMs = timeoutEscritaMs;
+        this.envio = Executors.newFixedThreadPool(threadsEnvio,
+                Thread.ofPlatform().name("sse-envio-", 0).daemon(true).factory());
+        // complete() pode ficar esperando uma escrita travada; em thread virtual
+        // essa espera não prende thread de plataforma
+        this.desconexao = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("sse-desconexao-", 0).factory());
+        this.vigia = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("sse-vigia").daemon(true).factory());
+        long intervaloVigia = Math.max(1, timeoutEscritaMs / 4);
+        vigia.scheduleWithFixedDelay(this::verificarEscritas, intervaloVigia, intervaloVigia, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("pessoa.eventos.assinantes", assinantes, Set::size)
+                .description("Assinantes conectados ao feed de eventos")
+                .register(meterRegistry);
+        this.desconexoesPorLentidao = Counter.builder("pessoa.eventos.desconexoes")
+                .tag("motivo", "fila-cheia")
+                .description("Assinantes desconectados por não consumirem os eventos a tempo")
+                .register(meterRegistry);
+        this.desconexoesPorEscritaLenta = Counter.builder("pessoa.eventos.desconexoes")
+                .tag("motivo", "escrita-lenta")
+                .description("Assinantes desconectados por uma escrita que passou do prazo")
+                .register(meterRegistry);
+    }
+
+    public boolean aceitaNovasAssinaturas() {
+        return assinantes.size() < maxAssinantes;
+    }
+
+    /**
+     * Cria uma assinatura. Quando lastEventId é informado, os eventos
+     * posteriores ainda presentes no buffer são reenviados antes dos novos.
+     */
+    public SseEmitter assinar(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter);
+
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> {
+            remover(assinante);
+            emitter.complete();
+        });
+        emitter.onError(ex -> remover(assinante));
+
+        Long ultimoId = parseLastEventId(lastEventId);
+
+        synchronized (lock) {
+            if (ultimoId != null) {
+                List<PessoaEvent> pendentes = buffer.desde(ultimoId);
+                if (pendentes == null) {
+                    logger.info("Last-Event-ID {} fora do buffer, cliente deve ressincronizar", ultimoId);
+                    assinante.ressincronizar = true;
+                } else {
+                    assinante.fila = new LinkedBlockingQueue<>(capacidadeFila + pendentes.size());
+                    assinante.fila.addAll(pendentes);
+                }
+            }
+            assinantes.add(assinante);
+        }
+
+        logger.debug("Nova assinatura do feed de eventos (total: {})", assinantes.size());
+        assinante.agendar();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPessoaChanged(PessoaChangedEvent alteracao) {
+        synchronized (lock) {
+            PessoaEvent evento = new PessoaEvent(
+                    ++sequencia,
+                    alteracao.tipo(),
+                    alteracao.pessoaId(),
+                    alteracao.pessoa(),
+                    Instant.now());
+            buffer.adicionar(evento);
+            for (Assinante assinante : assinantes) {
+                assinante.enfileirar(evento);
+            }
+        }
+    }
+
+    /**
+     * Envia um comentário para os assinantes ociosos, mantendo a conexão viva
+     * em proxies e detectando clientes que já desconectaram.
+     */
+    @Scheduled(fixedDelayString = "${pessoa-api.events.heartbeat-ms:15000}")
+    public void enviarHeartbeat() {
+        for (Assinante assinante : assinantes) {
+            assinante.heartbeat.set(true);
+            assinante.agendar();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        vigia.shutdownNow();
+        for (Assinante assinante : assinantes) {
+            assinante.desconectar();
+        }
+        envio.shutdown();
+        envio.awaitTermination(5, TimeUnit.SECONDS);
+        desconexao.shutdown();
+    }
+
+    private void verificarEscritas() {
+        long agora = System.nanoTime();
+        for (Assinante assinante : emEnvio) {
+            assinante.verificarEscrita(agora);
+        }
+    }
+
+    private void remover(Assinante assinante) {
+        assinante.encerrado = true;
+        assinantes.remove(assinante);
+    }
+
+    private static Long parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Last-Event-ID inválido ignorado: {}", lastEventId);
+            return null;
+        }
+    }
+
+    private final class Assinante {
+        private final SseEmitter emitter;
+        private final AtomicBoolean agendado = new AtomicBoolean();
+        private final AtomicBoolean heartbeat = new AtomicBoolean();
+        private BlockingQueue<PessoaEvent> fila;
+        private volatile boolean ressincronizar;
+        private volatile boolean encerrado;
+        // Thread de envio e início da escrita atual; guardados com o monitor
+        // do assinante para a interrupção não atingir o envio de outro
+        private Thread enviando;
+        private long inicioEscrita;
+
+        private Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.fila = new LinkedBlockingQueue<>(capacidadeFila);
+        }
+
+        /**
+         * Chamado com o lock do stream; nunca bloqueia.
+         */
+        private void enfileirar(PessoaEvent evento) {
+            if (encerrado) {
+                return;
+            }
+            if (!fila.offer(evento)) {
+                logger.warn("Assinante lento desconectado do feed de eventos (fila cheia)");
+                desconexoesPorLentidao.increment();
+                remover(this);
+                desconexao.execute(this::desconectar);
+                return;
+            }
+            agendar();
+        }
+
+        private void agendar() {
+            if (!encerrado && agendado.compareAndSet(false, true)) {
+                envio.execute(this::enviar);
+            }
+        }
+
+        private void enviar() {
+            synchronized (this) {
+                enviando = Thread.currentThread();
+                inicioEscrita = System.nanoTime();
+            }
+            emEnvio.add(this);
+            try {
+                if (ressincronizar) {
+                    ressincronizar = false;
+                    escrever(SseEmitter.event().name("RESSINCRONIZAR").data("{}", MediaType.APPLICATION_JSON));
+                }
+                PessoaEvent evento;
+                int enviados = 0;
+                while (!encerrado && enviados < MAX_EVENTOS_POR_ENVIO && (evento = fila.poll()) != null) {
+                    escrever(SseEmitter.event()
+                            .id(Long.toString(evento.sequencia()))
+                            .name(evento.tipo().name())
+                            .data(evento, MediaType.APPLICATION_JSON));
+                    enviados++;
+                }
+                if (!encerrado && fila.isEmpty() && heartbeat.getAndSet(false)) {
+                    escrever(SseEmitter.event().comment("keepalive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Assinante desconectado do feed de eventos: {}", e.getMessage());
+                remover(this);
+            } finally {
+                emEnvio.remove(this);
+                synchronized (this) {
+                    enviando = null;
+                }
+                // Descarta uma interrupção do vigia antes de atender outro assinante
+                Thread.interrupted();
+                agendado.set(false);
+            }
+            if (!fila.isEmpty()) {
+                agendar();
+            }
+        }
+
+        private void escrever(SseEmitter.SseEventBuilder evento) throws IOException {
+            synchronized (this) {
+                inicioEscrita = System.nanoTime();
+            }
+            emitter.send(evento);
+        }
+
+        /**
+         * Chamado pelo vigia: desconecta o assinante se a escrita atual já
+         * passou do prazo e interrompe a thread de envio presa nela. A
+         * interrupção se repete a cada verificação até a escrita voltar, porque
+         * uma interrupção que chega antes do bloqueio pode se perder.
+         */
+        private void verificarEscrita(long agora) {
+            synchronized (this) {
+                if (enviando == null || agora - inicioEscrita < TimeUnit.MILLISECONDS.toNanos(timeoutEscritaMs)) {
+                    return;
+                }
+                enviando.interrupt();
+                if (encerrado) {
+                    return;
+                }
+            }
+            logger.warn("Assinante lento desconectado do feed de eventos (escrita passou de {} ms)", timeoutEscritaMs);
+            desconexoesPorEscritaLenta.increment();
+            remover(this);
+            desconexao.execute(this::desconectar);
+        }
+
+        private void desconectar() {
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                logger.debug("Falha ao encerrar assinatura: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.fatec.modulo1.pessoa_api.events;
+
+/**
+ * Tipos de alteração publicados no feed de eventos de pessoas.
+ */
+public enum PessoaEventType {
+    CRIADA,
+    ATUALIZADA,
+    REMOVIDA
+}
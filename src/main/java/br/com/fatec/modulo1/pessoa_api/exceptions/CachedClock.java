@@ -0,0 +1,38 @@
+package br.com.fatec.modulo1.pessoa_api.exceptions;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Relógio com cache para o timestamp das respostas de erro. Em rajadas de
+ * erros, evita resolver fuso e alocar um LocalDateTime a cada resposta.
+ */
+final class CachedClock {
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final long resolucaoMs;
+    private volatile Leitura ultima;
+
+    CachedClock(long resolucaoMs) {
+        this.resolucaoMs = resolucaoMs;
+        this.ultima = ler(System.currentTimeMillis());
+    }
+
+    LocalDateTime agora() {
+        long millis = System.currentTimeMillis();
+        Leitura leitura = ultima;
+        if (millis - leitura.millis() < resolucaoMs && millis >= leitura.millis()) {
+            return leitura.dataHora();
+        }
+        Leitura nova = ler(millis);
+        ultima = nova;
+        return nova.dataHora();
+    }
+
+    private Leitura ler(long millis) {
+        return new Leitura(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone));
+    }
+
+    private record Leitura(long millis, LocalDateTime dataHora) {
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.fatec.modulo1.pessoa_api.exceptions;
+
+/**
+ * Mensagens fixas dos erros mais comuns, montadas uma única vez. Os
+ * lançadores e o GlobalExceptionHandler reutilizam as mesmas instâncias em
+ * vez de montar o texto a cada erro.
+ */
+public final class ErrorMessages {
+    public static final String PESSOA_NULA = "Pessoa não pode ser nula";
+    public static final String NOME_VAZIO = "O campo nome não estar vazio";
+    public static final String NOVA_PESSOA_COM_ID = "Nova pessoa não deve ter ID";
+    public static final String ID_INVALIDO = "ID deve ser um número positivo";
+    public static final String ID_OBRIGATORIO = "ID da pessoa é obrigatório para atualização";
+    public static final String PESSOA_DUPLICADA = "Já existe pessoa com o mesmo nome e data de nascimento";
+    public static final String CAMPOS_VAZIOS = "Informe ao menos um campo";
+
+    static final String VALIDACAO_CAMPOS = "Erro de validação nos campos fornecidos";
+    static final String VALIDACAO = "Erro de validação";
+    static final String JSON_MALFORMADO = "Requisição contém JSON inválido ou malformado";
+    static final String TEMPO_LIMITE = "A operação excedeu o tempo limite. Tente novamente mais tarde.";
+    static final String BANCO_INDISPONIVEL = "Banco de dados indisponível no momento. Tente novamente mais tarde.";
+    static final String ERRO_INTERNO = "Ocorreu um erro interno no servidor. Por favor, tente novamente mais tarde.";
+
+    private ErrorMessages() {
+    }
+}
@@ -1,13 +1,22 @@
 package br.com.fatec.modulo1.pessoa_api.exceptions;
 
 import br.com.fatec.modulo1.pessoa_api.dto.ErrorResponse;
+import br.com.fatec.modulo1.pessoa_api.logger.RateLimitedLogger;
+import br.com.fatec.modulo1.pessoa_api.resilience.DatabaseUnavailableException;
+import br.com.fatec.modulo1.pessoa_api.resilience.DeadlineExceededException;
+import br.com.fatec.modulo1.pessoa_api.resilience.DeadlineInterceptor;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ConstraintViolation;
@@ -16,10 +25,33 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.time.LocalDateTime;
+
+/**
+ * Tratamento global de exceções.
+ *
+ * No modo enxuto (pessoa-api.errors.lean-mode=true) os erros de cliente
+ * (4xx) usam um relógio com cache para o timestamp e têm o log WARN limitado
+ * por tipo de erro; o MDC só é preenchido quando o log é de fato emitido.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final boolean leanMode;
+    private final CachedClock clock;
+    private final RateLimitedLogger rateLimitedLogger;
+
+    public GlobalExceptionHandler(
+            @Value("${pessoa-api.errors.lean-mode:false}") boolean leanMode,
+            @Value("${pessoa-api.errors.clock-resolution-ms:10}") long clockResolutionMs,
+            @Value("${pessoa-api.errors.log-window-ms:1000}") long logWindowMs,
+            @Value("${pessoa-api.errors.log-max-per-window:10}") int logMaxPerWindow) {
+        this.leanMode = leanMode;
+        this.clock = new CachedClock(clockResolutionMs);
+        this.rateLimitedLogger = new RateLimitedLogger(logWindowMs, logMaxPerWindow);
+    }
+
     /**
      * Trata ResourceNotFoundException - 404
      */
@@ -28,19 +60,12 @@ public class GlobalExceptionHandler {
             ResourceNotFoundException ex,
             HttpServletRequest request) {
 
-        MDC.put("errorType", "RESOURCE_NOT_FOUND");
-
-        logger.warn("Recurso não encontrado: {}", ex.getMessage());
-
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.NOT_FOUND.value(),
-                "Not Found",
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-        error.setRequestId(MDC.get("requestId"));
+        if (iniciarLog("RESOURCE_NOT_FOUND")) {
+            logger.warn("Recurso não encontrado: {}", ex.getMessage());
+            MDC.remove("errorType");
+        }
 
-        MDC.remove("errorType");
+        ErrorResponse error = criarErro(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), request);
 
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
@@ -53,24 +78,17 @@ public class GlobalExceptionHandler {
             ValidationException ex,
             HttpServletRequest request) {
 
-        MDC.put("errorType", "VALIDATION_ERROR");
+        if (iniciarLog("VALIDATION_ERROR")) {
+            logger.warn("Erro de validação: {}", ex.getMessage());
+            MDC.remove("errorType");
+        }
 
-        logger.warn("Erro de validação: {}", ex.getMessage());
-
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Validation Error",
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-        error.setRequestId(MDC.get("requestId"));
+        ErrorResponse error = criarErro(HttpStatus.BAD_REQUEST, "Validation Error", ex.getMessage(), request);
 
         if (ex.getField() != null) {
             error.addFieldError(ex.getField(), ex.getRejectedValue(), ex.getMessage());
         }
 
-        MDC.remove("errorType");
-
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -82,18 +100,18 @@ public class GlobalExceptionHandler {
             MethodArgumentNotValidException ex,
             HttpServletRequest request) {
 
-        MDC.put("errorType", "VALIDATION_ERROR");
-
-        logger.warn("Erro de validação: {} campo(s) inválido(s)",
-                ex.getBindingResult().getFieldErrorCount());
+        if (iniciarLog("VALIDATION_ERROR")) {
+            logger.warn("Erro de validação: {} campo(s) inválido(s)",
+                    ex.getBindingResult().getFieldErrorCount());
+            MDC.remove("errorType");
+        }
 
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
+        ErrorResponse error = criarErro(
+                HttpStatus.BAD_REQUEST,
                 "Validation Error",
-                "Erro de validação nos campos fornecidos",
-                request.getRequestURI()
+                ErrorMessages.VALIDACAO_CAMPOS,
+                request
         );
-        error.setRequestId(MDC.get("requestId"));
 
         // Adiciona erros de cada campo
         for (FieldError fieldError : ex.getBindingResult().getFieldErrors()) {
@@ -108,8 +126,6 @@ public class GlobalExceptionHandler {
                     fieldError.getDefaultMessage());
         }
 
-        MDC.remove("errorType");
-
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -121,17 +137,12 @@ public class GlobalExceptionHandler {
             ConstraintViolationException ex,
             HttpServletRequest request) {
 
-        MDC.put("errorType", "CONSTRAINT_VIOLATION");
-
-        logger.warn("Violação de constraint: {}", ex.getMessage());
+        if (iniciarLog("CONSTRAINT_VIOLATION")) {
+            logger.warn("Violação de constraint: {}", ex.getMessage());
+            MDC.remove("errorType");
+        }
 
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Constraint Violation",
-                "Erro de validação",
-                request.getRequestURI()
-        );
-        error.setRequestId(MDC.get("requestId"));
+        ErrorResponse error = criarErro(HttpStatus.BAD_REQUEST, "Constraint Violation", ErrorMessages.VALIDACAO, request);
 
         for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
             String fieldName = violation.getPropertyPath().toString();
@@ -142,8 +153,6 @@ public class GlobalExceptionHandler {
             );
         }
 
-        MDC.remove("errorType");
-
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
@@ -155,19 +164,12 @@ public class GlobalExceptionHandler {
             IllegalArgumentException ex,
             HttpServletRequest request) {
 
-        MDC.put("errorType", "ILLEGAL_ARGUMENT");
-
-        logger.warn("Argumento ilegal: {}", ex.getMessage());
+        if (iniciarLog("ILLEGAL_ARGUMENT")) {
+            logger.warn("Argumento ilegal: {}", ex.getMessage());
+            MDC.remove("errorType");
+        }
 
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Bad Request",
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-        error.setRequestId(MDC.get("requestId"));
-
-        MDC.remove("errorType");
+        ErrorResponse error = criarErro(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), request);
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
@@ -180,36 +182,22 @@ public class GlobalExceptionHandler {
             MethodArgumentTypeMismatchException ex,
             HttpServletRequest request) {
 
-        MDC.put("errorType", "TYPE_MISMATCH");
-
-        logger.warn("Tipo de argumento incompatível: {} para o parâmetro {}",
-                ex.getValue(), ex.getName());
+        if (iniciarLog("TYPE_MISMATCH")) {
+            logger.warn("Tipo de argumento incompatível: {} para o parâmetro {}",
+                    ex.getValue(), ex.getName());
+            MDC.remove("errorType");
+        }
 
-        ErrorResponse error = getErrorResponse(ex, request);
-        error.setRequestId(MDC.get("requestId"));
+        String message = "O parâmetro '" + ex.getName()
+                + "' com valor '" + ex.getValue()
+                + "' não pôde ser convertido para o tipo "
+                + (ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : "desconhecido");
 
-        MDC.remove("errorType");
+        ErrorResponse error = criarErro(HttpStatus.BAD_REQUEST, "Type Mismatch", message, request);
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
-    private static ErrorResponse getErrorResponse(MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
-        String message = String.format(
-                "O parâmetro '%s' com valor '%s' não pôde ser convertido para o tipo %s",
-                ex.getName(),
-                ex.getValue(),
-                ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : "desconhecido"
-        );
-
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                "Type Mismatch",
-                message,
-                request.getRequestURI()
-        );
-        return error;
-    }
-
     /**
      * Trata JSON malformado - 400
      */
@@ -218,23 +206,82 @@ public class GlobalExceptionHandler {
             HttpMessageNotReadableException ex,
             HttpServletRequest request) {
 
-        MDC.put("errorType", "MALFORMED_JSON");
-
-        logger.warn("JSON malformado na requisição");
+        if (iniciarLog("MALFORMED_JSON")) {
+            logger.warn("JSON malformado na requisição");
+            MDC.remove("errorType");
+        }
 
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
+        ErrorResponse error = criarErro(
+                HttpStatus.BAD_REQUEST,
                 "Malformed JSON",
-                "Requisição contém JSON inválido ou malformado",
-                request.getRequestURI()
+                ErrorMessages.JSON_MALFORMADO,
+                request
         );
-        error.setRequestId(MDC.get("requestId"));
-
-        MDC.remove("errorType");
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Trata prazo da operação excedido e timeout de consulta - 504
+     */
+    @ExceptionHandler({
+            DeadlineExceededException.class,
+            QueryTimeoutException.class,
+            TransactionTimedOutException.class
+    })
+    public ResponseEntity<ErrorResponse> handleTimeout(
+            RuntimeException ex,
+            HttpServletRequest request) {
+
+        request.setAttribute(DeadlineInterceptor.ATRIBUTO_FALHA_BANCO, DeadlineInterceptor.FALHA_TIMEOUT);
+
+        if (iniciarLog("DATABASE_TIMEOUT")) {
+            logger.warn("Tempo limite excedido no acesso ao banco: {}", ex.getMessage());
+            MDC.remove("errorType");
+        }
+
+        ErrorResponse error = criarErro(
+                HttpStatus.GATEWAY_TIMEOUT,
+                "Gateway Timeout",
+                ErrorMessages.TEMPO_LIMITE,
+                request
+        );
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(error);
+    }
+
+    /**
+     * Trata banco indisponível (circuito aberto ou falha de conexão) - 503
+     */
+    @ExceptionHandler({
+            DatabaseUnavailableException.class,
+            DataAccessResourceFailureException.class,
+            CannotCreateTransactionException.class
+    })
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(
+            RuntimeException ex,
+            HttpServletRequest request) {
+
+        // Recusas do próprio circuito não contam como nova falha
+        if (!(ex instanceof DatabaseUnavailableException)) {
+            request.setAttribute(DeadlineInterceptor.ATRIBUTO_FALHA_BANCO, DeadlineInterceptor.FALHA_CONEXAO);
+        }
+
+        if (iniciarLog("DATABASE_UNAVAILABLE")) {
+            logger.warn("Banco de dados indisponível: {}", ex.getMessage());
+            MDC.remove("errorType");
+        }
+
+        ErrorResponse error = criarErro(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Service Unavailable",
+                ErrorMessages.BANCO_INDISPONIVEL,
+                request
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     /**
      * Trata todas as outras exceções não tratadas - 500
      */
@@ -247,16 +294,39 @@ public class GlobalExceptionHandler {
 
         logger.error("Erro interno não tratado", ex);
 
-        ErrorResponse error = new ErrorResponse(
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+        MDC.remove("errorType");
+
+        ErrorResponse error = criarErro(
+                HttpStatus.INTERNAL_SERVER_ERROR,
                 "Internal Server Error",
-                "Ocorreu um erro interno no servidor. Por favor, tente novamente mais tarde.",
-                request.getRequestURI()
+                ErrorMessages.ERRO_INTERNO,
+                request
         );
-        error.setRequestId(MDC.get("requestId"));
-
-        MDC.remove("errorType");
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+
+    /**
+     * Preenche o MDC com o tipo de erro e indica se o log deve ser emitido.
+     * Quem recebe true é responsável por remover "errorType" do MDC.
+     */
+    private boolean iniciarLog(String errorType) {
+        long suprimidas = leanMode ? rateLimitedLogger.permitir(errorType) : 0;
+        if (suprimidas == RateLimitedLogger.SUPRIMIDO) {
+            return false;
+        }
+
+        MDC.put("errorType", errorType);
+        if (suprimidas > 0) {
+            logger.warn("{} ocorrência(s) de {} não registradas na última janela", suprimidas, errorType);
+        }
+        return true;
+    }
+
+    private ErrorResponse criarErro(HttpStatus status, String error, String message, HttpServletRequest request) {
+        LocalDateTime timestamp = leanMode ? clock.agora() : LocalDateTime.now();
+        ErrorResponse response = new ErrorResponse(timestamp, status.value(), error, message, request.getRequestURI());
+        response.setRequestId(MDC.get("requestId"));
+        return response;
+    }
 }
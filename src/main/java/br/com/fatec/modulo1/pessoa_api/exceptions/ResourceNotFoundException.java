@@ -1,15 +1,19 @@
 package br.com.fatec.modulo1.pessoa_api.exceptions;
 
+/**
+ * Exceção de domínio usada como resposta 404. Não captura stack trace: ela é
+ * lançada em fluxo normal (IDs inexistentes) e o handler só usa a mensagem.
+ */
 public class ResourceNotFoundException extends RuntimeException {
     private String resourceName;
     private Long resourceId;
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public ResourceNotFoundException(String resourceName, Long resourceId) {
-        super(String.format("%s não encontrado com ID: %d", resourceName, resourceId));
+        super(resourceName + " não encontrado com ID: " + resourceId, null, false, false);
         this.resourceName = resourceName;
         this.resourceId = resourceId;
     }
@@ -21,4 +25,4 @@ public class ResourceNotFoundException extends RuntimeException {
     public Long getResourceId() {
         return resourceId;
     }
-}
\ No newline at end of file
+}
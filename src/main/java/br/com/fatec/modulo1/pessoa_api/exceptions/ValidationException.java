@@ -1,15 +1,19 @@
 package br.com.fatec.modulo1.pessoa_api.exceptions;
 
+/**
+ * Exceção de domínio usada como resposta 400. Assim como a
+ * ResourceNotFoundException, não captura stack trace.
+ */
 public class ValidationException extends RuntimeException {
     private String field;
     private Object rejectedValue;
 
     public ValidationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public ValidationException(String field, Object rejectedValue, String message) {
-        super(message);
+        super(message, null, false, false);
         this.field = field;
         this.rejectedValue = rejectedValue;
     }
@@ -21,4 +25,4 @@ public class ValidationException extends RuntimeException {
     public Object getRejectedValue() {
         return rejectedValue;
     }
-}
\ No newline at end of file
+}
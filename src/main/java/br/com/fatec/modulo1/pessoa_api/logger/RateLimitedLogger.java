@@ -0,0 +1,55 @@
+package br.com.fatec.modulo1.pessoa_api.logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita quantas vezes a mesma categoria de log é emitida por janela de tempo.
+ * As ocorrências suprimidas são contadas e informadas no próximo log permitido.
+ */
+public class RateLimitedLogger {
+    /**
+     * Valor retornado por {@link #permitir(String)} quando o log deve ser suprimido.
+     */
+    public static final long SUPRIMIDO = -1;
+
+    private final ConcurrentHashMap<String, Janela> janelas = new ConcurrentHashMap<>();
+    private final long janelaMs;
+    private final int maxPorJanela;
+
+    public RateLimitedLogger(long janelaMs, int maxPorJanela) {
+        this.janelaMs = janelaMs;
+        this.maxPorJanela = maxPorJanela;
+    }
+
+    /**
+     * Retorna SUPRIMIDO se o limite da janela já foi atingido; caso contrário,
+     * retorna quantas ocorrências da chave foram suprimidas desde o último log.
+     */
+    public long permitir(String chave) {
+        Janela janela = janelas.computeIfAbsent(chave, k -> new Janela());
+        long agora = System.currentTimeMillis();
+
+        if (agora - janela.inicio >= janelaMs) {
+            synchronized (janela) {
+                if (agora - janela.inicio >= janelaMs) {
+                    janela.inicio = agora;
+                    janela.contagem.set(0);
+                }
+            }
+        }
+
+        if (janela.contagem.incrementAndGet() <= maxPorJanela) {
+            return janela.suprimidas.getAndSet(0);
+        }
+        janela.suprimidas.incrementAndGet();
+        return SUPRIMIDO;
+    }
+
+    private static final class Janela {
+        private volatile long inicio = Long.MIN_VALUE / 2;
+        private final AtomicInteger contagem = new AtomicInteger();
+        private final AtomicLong suprimidas = new AtomicLong();
+    }
+}
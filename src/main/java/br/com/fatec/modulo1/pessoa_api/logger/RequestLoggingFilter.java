@@ -33,6 +33,10 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         MDC.put("method", request.getMethod());
         MDC.put("path", request.getRequestURI());
         MDC.put("clientIp", getClientIpAddress(request));
+        if (request.getHeader("X-Warmup") != null) {
+            // Requisições sintéticas do WarmupRunner, filtráveis no Graylog
+            MDC.put("warmup", "true");
+        }
 
         response.setHeader("X-Request-Id", requestId);
 
@@ -0,0 +1,117 @@
+package br.com.fatec.modulo1.pessoa_api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que mede, por endpoint, quanto tempo cada requisição espera para
+ * obter uma conexão do pool e por quanto tempo a mantém até devolvê-la.
+ *
+ * Métricas: pessoa.db.conexao.espera e pessoa.db.conexao.uso, com a tag
+ * "endpoint" (método + padrão da rota, ou "background" fora de requisições).
+ */
+public class ConnectionMetricsDataSource extends DelegatingDataSource {
+    private static final String FORA_DE_REQUISICAO = "background";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ConcurrentHashMap<String, Timer> espera = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timer> uso = new ConcurrentHashMap<>();
+
+    public ConnectionMetricsDataSource(DataSource targetDataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection();
+        return instrumentar(connection, inicio);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long inicio = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection(username, password);
+        return instrumentar(connection, inicio);
+    }
+
+    private Connection instrumentar(Connection connection, long inicioEspera) {
+        long obtida = System.nanoTime();
+        String endpoint = endpointAtual();
+        timer(espera, "pessoa.db.conexao.espera", "Tempo de espera para obter conexão do pool", endpoint)
+                .record(obtida - inicioEspera, TimeUnit.NANOSECONDS);
+
+        AtomicBoolean devolvida = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && devolvida.compareAndSet(false, true)) {
+                        timer(uso, "pessoa.db.conexao.uso", "Tempo em que a conexão ficou retida", endpoint)
+                                .record(System.nanoTime() - obtida, TimeUnit.NANOSECONDS);
+                    }
+                    Object resultado = invocar(connection, method, args);
+                    if (resultado instanceof Statement statement) {
+                        return comConexao(statement, method.getReturnType(), (Connection) proxy);
+                    }
+                    return resultado;
+                });
+    }
+
+    /**
+     * Faz Statement.getConnection() devolver a conexão instrumentada. O
+     * JdbcTemplate.queryForStream, por exemplo, libera a conexão obtida do
+     * statement, e sem isso o tempo de uso não seria registrado.
+     */
+    private static Statement comConexao(Statement statement, Class<?> tipo, Connection conexao) {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{tipo},
+                (proxy, method, args) -> "getConnection".equals(method.getName())
+                        ? conexao
+                        : invocar(statement, method, args));
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private Timer timer(ConcurrentHashMap<String, Timer> cache, String nome, String descricao, String endpoint) {
+        return cache.computeIfAbsent(endpoint, e -> Timer.builder(nome)
+                .description(descricao)
+                .tag("endpoint", e)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry.getObject()));
+    }
+
+    private static String endpointAtual() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return FORA_DE_REQUISICAO;
+        }
+        Object padrao = servletAttributes.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return servletAttributes.getRequest().getMethod() + " " + (padrao != null ? padrao : "desconhecido");
+    }
+}
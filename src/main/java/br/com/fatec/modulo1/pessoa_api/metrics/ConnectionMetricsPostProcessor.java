@@ -0,0 +1,32 @@
+package br.com.fatec.modulo1.pessoa_api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve os DataSources da aplicação em ConnectionMetricsDataSource.
+ * O MeterRegistry é resolvido só na primeira conexão para não antecipar a
+ * criação dele durante o registro dos post-processors.
+ */
+@Component
+@ConditionalOnProperty(name = "pessoa-api.db.connection-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionMetricsPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConnectionMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionMetricsDataSource)) {
+            return new ConnectionMetricsDataSource(dataSource, meterRegistry);
+        }
+        return bean;
+    }
+}
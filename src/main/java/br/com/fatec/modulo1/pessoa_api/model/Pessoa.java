@@ -4,11 +4,21 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import org.springframework.format.annotation.DateTimeFormat;
 
+import java.text.Normalizer;
 import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
 
 @Entity
-@Table(name = "pessoas_table")
+@Table(name = "pessoas_table", uniqueConstraints = {
+        @UniqueConstraint(name = Pessoa.UK_NOME_NASCIMENTO, columnNames = {"nome_chave", "dt_nascimento"})
+})
 public class Pessoa {
+    public static final String UK_NOME_NASCIMENTO = "uk_pessoas_nome_chave_nascimento";
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -19,6 +29,20 @@ public class Pessoa {
     private String nome;
     private boolean ativo;
 
+    // Nome normalizado, só para a regra de duplicidade; não sai no JSON.
+    // Collation binária: o banco compara a chave como o Java, sem juntar
+    // por conta própria "ß" e "ss" como o utf8mb4_0900_ai_ci
+    @Column(name = "nome_chave", columnDefinition = "VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin")
+    private String nomeChave;
+
+    // Estado lido do banco, para saber na atualização se nome ou data mudaram
+    @Transient
+    private boolean carregada;
+    @Transient
+    private String chaveCarregada;
+    @Transient
+    private String nomeChaveCarregado;
+
     public Pessoa(Long id, LocalDate dt_nascimento, String nome, boolean ativo) {
         this.id = id;
         this.dt_nascimento = dt_nascimento;
@@ -60,4 +84,49 @@ public class Pessoa {
     public void setAtivo(boolean ativo) {
         this.ativo = ativo;
     }
+
+    /**
+     * Sem mudança de nome ou data, a chave gravada é mantida. Assim uma
+     * duplicata gravada antes da restrição, que ficou sem chave, ainda pode
+     * ser atualizada (por exemplo, desativada); ela só recebe chave, e passa
+     * pela restrição, quando o nome ou a data mudam.
+     */
+    @PrePersist
+    @PreUpdate
+    void atualizarNomeChave() {
+        if (carregada && Objects.equals(chaveDuplicidade(nome, dt_nascimento), chaveCarregada)) {
+            this.nomeChave = nomeChaveCarregado;
+        } else {
+            this.nomeChave = nome != null ? normalizarNome(nome) : null;
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void lembrarChaveGravada() {
+        this.carregada = true;
+        this.chaveCarregada = chaveDuplicidade(nome, dt_nascimento);
+        this.nomeChaveCarregado = nomeChave;
+    }
+
+    /**
+     * Nome sem espaços nas pontas, sem acentos e em minúsculas: "  José " e
+     * "jose" são a mesma pessoa para a regra de duplicidade.
+     */
+    public static String normalizarNome(String nome) {
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(nome.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Chave da regra de duplicidade (nome normalizado e data de nascimento),
+     * igual em todos os backends. Nula quando falta nome ou data.
+     */
+    public static String chaveDuplicidade(String nome, LocalDate dtNascimento) {
+        if (nome == null || dtNascimento == null) {
+            return null;
+        }
+        return normalizarNome(nome) + '|' + dtNascimento;
+    }
 }
@@ -0,0 +1,9 @@
+package br.com.fatec.modulo1.pessoa_api.repository;
+
+/**
+ * Manutenção da coluna nome_chave, usada pela restrição única de
+ * duplicidade (nome normalizado, dt_nascimento).
+ */
+public interface PessoaChaveRepository {
+    long preencherChavesDeDuplicidade();
+}
@@ -0,0 +1,79 @@
+package br.com.fatec.modulo1.pessoa_api.repository;
+
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+class PessoaChaveRepositoryImpl implements PessoaChaveRepository {
+    private static final Logger logger = LoggerFactory.getLogger(PessoaChaveRepositoryImpl.class);
+
+    private static final int LOTE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transacao;
+
+    PessoaChaveRepositoryImpl(PlatformTransactionManager transactionManager) {
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Percorre por id as linhas sem nome_chave, um lote por transação. Se um
+     * lote esbarra na restrição única (duplicata gravada antes dela), o lote
+     * é refeito linha a linha e só as duplicatas ficam sem chave.
+     */
+    @Override
+    public long preencherChavesDeDuplicidade() {
+        long preenchidas = 0;
+        long ultimoId = 0;
+        List<Tuple> lote;
+        do {
+            lote = pendentes(ultimoId);
+            if (lote.isEmpty()) {
+                break;
+            }
+            try {
+                List<Tuple> atual = lote;
+                transacao.executeWithoutResult(status -> atual.forEach(this::preencher));
+                preenchidas += lote.size();
+            } catch (RuntimeException e) {
+                for (Tuple linha : lote) {
+                    try {
+                        transacao.executeWithoutResult(status -> preencher(linha));
+                        preenchidas++;
+                    } catch (RuntimeException duplicada) {
+                        logger.warn("Pessoa ID={} repete nome e data de nascimento de outra; ficou sem chave de duplicidade",
+                                linha.get("id", Long.class));
+                    }
+                }
+            }
+            ultimoId = lote.get(lote.size() - 1).get("id", Long.class);
+        } while (lote.size() == LOTE);
+        return preenchidas;
+    }
+
+    private List<Tuple> pendentes(long ultimoId) {
+        return entityManager.createQuery(
+                        "SELECT p.id AS id, p.nome AS nome FROM Pessoa p "
+                                + "WHERE p.nomeChave IS NULL AND p.nome IS NOT NULL AND p.id > :ultimoId ORDER BY p.id",
+                        Tuple.class)
+                .setParameter("ultimoId", ultimoId)
+                .setMaxResults(LOTE)
+                .getResultList();
+    }
+
+    private void preencher(Tuple linha) {
+        entityManager.createQuery("UPDATE Pessoa p SET p.nomeChave = :chave WHERE p.id = :id")
+                .setParameter("chave", Pessoa.normalizarNome(linha.get("nome", String.class)))
+                .setParameter("id", linha.get("id", Long.class))
+                .executeUpdate();
+    }
+}
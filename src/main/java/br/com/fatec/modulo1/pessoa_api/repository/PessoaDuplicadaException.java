@@ -0,0 +1,19 @@
+package br.com.fatec.modulo1.pessoa_api.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * Gravação recusada porque a chave de duplicidade (nome normalizado e data
+ * de nascimento) já pertence a outra pessoa. Lançada pelos backends que
+ * garantem a regra por conta própria; no JPA, quem recusa é a restrição
+ * única Pessoa.UK_NOME_NASCIMENTO.
+ */
+public class PessoaDuplicadaException extends DuplicateKeyException {
+    public PessoaDuplicadaException(String chave) {
+        super("Chave de duplicidade já cadastrada: " + chave);
+    }
+
+    public PessoaDuplicadaException(String chave, Throwable causa) {
+        super("Chave de duplicidade já cadastrada: " + chave, causa);
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.fatec.modulo1.pessoa_api.repository;
+
+import br.com.fatec.modulo1.pessoa_api.dto.PessoaParcial;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Consultas de listagem que selecionam apenas as colunas pedidas, sem
+ * carregar entidades no contexto de persistência.
+ */
+public interface PessoaProjectionRepository {
+    /**
+     * Campos de Pessoa que podem ser pedidos em ?campos=.
+     */
+    Set<String> CAMPOS_DISPONIVEIS = Set.of("id", "dt_nascimento", "nome", "ativo");
+
+    Page<PessoaParcial> findAtivosComCampos(List<String> campos, Pageable pageable);
+
+    void percorrerNomesENascimentos(BiConsumer<String, LocalDate> consumidor);
+}
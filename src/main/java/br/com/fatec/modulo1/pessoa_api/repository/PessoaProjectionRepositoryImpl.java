@@ -0,0 +1,91 @@
+package br.com.fatec.modulo1.pessoa_api.repository;
+
+import br.com.fatec.modulo1.pessoa_api.dto.PessoaParcial;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+class PessoaProjectionRepositoryImpl implements PessoaProjectionRepository {
+    private static final int LOTE_LEITURA = 10_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<PessoaParcial> findAtivosComCampos(List<String> campos, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Pessoa> root = query.from(Pessoa.class);
+
+        List<Selection<?>> selecao = new ArrayList<>(campos.size());
+        for (String campo : campos) {
+            selecao.add(root.get(campo).alias(campo));
+        }
+        query.multiselect(selecao)
+                .where(cb.isTrue(root.get("ativo")))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Tuple> linhas = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        List<PessoaParcial> conteudo = new ArrayList<>(linhas.size());
+        for (Tuple linha : linhas) {
+            conteudo.add(new PessoaParcial(
+                    campos.contains("id") ? linha.get("id", Long.class) : null,
+                    campos.contains("dt_nascimento") ? linha.get("dt_nascimento", LocalDate.class) : null,
+                    campos.contains("nome") ? linha.get("nome", String.class) : null,
+                    campos.contains("ativo") ? linha.get("ativo", Boolean.class) : null));
+        }
+
+        return PageableExecutionUtils.getPage(conteudo, pageable, this::contarAtivos);
+    }
+
+    /**
+     * Lê em lotes paginados por id (keyset), cada um numa consulta própria,
+     * para não depender de transação aberta nem manter um cursor longo.
+     */
+    @Override
+    public void percorrerNomesENascimentos(BiConsumer<String, LocalDate> consumidor) {
+        long ultimoId = 0;
+        List<Tuple> lote;
+        do {
+            lote = entityManager.createQuery(
+                            "SELECT p.id AS id, p.nome AS nome, p.dt_nascimento AS dt_nascimento "
+                                    + "FROM Pessoa p WHERE p.id > :ultimoId ORDER BY p.id", Tuple.class)
+                    .setParameter("ultimoId", ultimoId)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .setMaxResults(LOTE_LEITURA)
+                    .getResultList();
+            for (Tuple linha : lote) {
+                consumidor.accept(linha.get("nome", String.class), linha.get("dt_nascimento", LocalDate.class));
+                ultimoId = linha.get("id", Long.class);
+            }
+        } while (lote.size() == LOTE_LEITURA);
+    }
+
+    private long contarAtivos() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Pessoa> root = query.from(Pessoa.class);
+        query.select(cb.count(root)).where(cb.isTrue(root.get("ativo")));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -3,10 +3,23 @@ package br.com.fatec.modulo1.pessoa_api.repository;
 import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
 
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface PessoaRepository extends JpaRepository<Pessoa, Long> {
+import java.time.LocalDate;
+
+public interface PessoaRepository extends JpaRepository<Pessoa, Long>, PessoaProjectionRepository,
+        PessoaChaveRepository, PessoaStore {
     Page<Pessoa> findByAtivoTrue(Pageable pageable);
+
+    @Override
+    default boolean existsByNomeAndNascimento(String nome, LocalDate dtNascimento) {
+        return nome != null && existsByNomeChaveAndNascimento(Pessoa.normalizarNome(nome), dtNascimento);
+    }
+
+    @Query("SELECT COUNT(p) > 0 FROM Pessoa p WHERE p.nomeChave = :nomeChave AND p.dt_nascimento = :dtNascimento")
+    boolean existsByNomeChaveAndNascimento(@Param("nomeChave") String nomeChave,
+                                           @Param("dtNascimento") LocalDate dtNascimento);
 }
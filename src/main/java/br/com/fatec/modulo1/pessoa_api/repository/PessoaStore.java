@@ -0,0 +1,62 @@
+package br.com.fatec.modulo1.pessoa_api.repository;
+
+import br.com.fatec.modulo1.pessoa_api.dto.PessoaParcial;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Operações de armazenamento usadas pelo PessoaService.
+ *
+ * As assinaturas espelham as do Spring Data, então o PessoaRepository (JPA)
+ * já é uma implementação; backends alternativos são ativados por profile.
+ * A listagem de ativos é sempre ordenada por nome e, em caso de empate, por id.
+ */
+public interface PessoaStore {
+    <S extends Pessoa> S save(S pessoa);
+
+    Optional<Pessoa> findById(Long id);
+
+    void deleteById(Long id);
+
+    Page<Pessoa> findByAtivoTrue(Pageable pageable);
+
+    Page<PessoaParcial> findAtivosComCampos(List<String> campos, Pageable pageable);
+
+    /**
+     * Envia ao banco as escritas pendentes, para que uma violação de
+     * restrição apareça dentro da operação que a causou.
+     */
+    void flush();
+
+    /**
+     * Indica se já existe pessoa com o mesmo nome e data de nascimento,
+     * ativa ou não, comparando pela chave normalizada
+     * (Pessoa.chaveDuplicidade). Deve ser atendida por índice sobre a chave.
+     *
+     * A mesma chave é única no backend: um save que a repita lança
+     * DataIntegrityViolationException, mesmo com criações simultâneas
+     * (PessoaDuplicadaException nos backends sem restrição do banco).
+     * Duplicatas gravadas antes da regra continuam podendo ser atualizadas
+     * enquanto nome e data não mudam.
+     */
+    boolean existsByNomeAndNascimento(String nome, LocalDate dtNascimento);
+
+    /**
+     * Grava a chave de duplicidade das pessoas cadastradas antes de ela
+     * existir e devolve quantas foram preenchidas. Pessoas que repetem a
+     * chave de outra já existente ficam de fora, com aviso no log.
+     */
+    long preencherChavesDeDuplicidade();
+
+    /**
+     * Percorre nome e data de nascimento de todas as pessoas, sem carregar
+     * entidades (carga do filtro de duplicidade).
+     */
+    void percorrerNomesENascimentos(BiConsumer<String, LocalDate> consumidor);
+}
@@ -0,0 +1,147 @@
+package br.com.fatec.modulo1.pessoa_api.repository.mmap;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long -&gt; long com endereçamento aberto (sondagem linear), sem boxing.
+ *
+ * Usado como índice id -&gt; posição no log. A chave 0 marca posição vazia,
+ * então só aceita chaves positivas (os ids começam em 1). Não é thread-safe:
+ * o MappedPessoaStore protege o acesso com o seu lock.
+ */
+class LongLongHashMap {
+    static final long AUSENTE = -1;
+
+    private static final float CARGA_MAXIMA = 0.6f;
+
+    private long[] chaves;
+    private long[] valores;
+    private int bits;
+    private int tamanho;
+
+    LongLongHashMap(int capacidadeEsperada) {
+        int capacidade = Integer.highestOneBit(Math.max(16, (int) (capacidadeEsperada / CARGA_MAXIMA)) - 1) << 1;
+        alocar(capacidade);
+    }
+
+    int size() {
+        return tamanho;
+    }
+
+    long get(long chave) {
+        int mascara = chaves.length - 1;
+        for (int i = indice(chave); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                return valores[i];
+            }
+            if (atual == 0) {
+                return AUSENTE;
+            }
+        }
+    }
+
+    /**
+     * Associa o valor à chave e devolve o valor anterior, ou AUSENTE.
+     */
+    long put(long chave, long valor) {
+        if (chave <= 0) {
+            throw new IllegalArgumentException("Chave deve ser positiva: " + chave);
+        }
+        int mascara = chaves.length - 1;
+        for (int i = indice(chave); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                long anterior = valores[i];
+                valores[i] = valor;
+                return anterior;
+            }
+            if (atual == 0) {
+                chaves[i] = chave;
+                valores[i] = valor;
+                if (++tamanho > chaves.length * CARGA_MAXIMA) {
+                    redimensionar();
+                }
+                return AUSENTE;
+            }
+        }
+    }
+
+    /**
+     * Remove a chave e devolve o valor que ela tinha, ou AUSENTE.
+     */
+    long remove(long chave) {
+        int mascara = chaves.length - 1;
+        int i = indice(chave);
+        while (chaves[i] != chave) {
+            if (chaves[i] == 0) {
+                return AUSENTE;
+            }
+            i = (i + 1) & mascara;
+        }
+        long anterior = valores[i];
+        tamanho--;
+
+        // Deslocamento para trás: puxa os elementos seguintes do mesmo
+        // agrupamento para não deixar buracos no caminho de sondagem
+        int vazio = i;
+        for (int j = (i + 1) & mascara; chaves[j] != 0; j = (j + 1) & mascara) {
+            int ideal = indice(chaves[j]);
+            if (((j - ideal) & mascara) >= ((j - vazio) & mascara)) {
+                chaves[vazio] = chaves[j];
+                valores[vazio] = valores[j];
+                vazio = j;
+            }
+        }
+        chaves[vazio] = 0;
+        valores[vazio] = 0;
+        return anterior;
+    }
+
+    void forEach(Visitante visitante) {
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != 0) {
+                visitante.visitar(chaves[i], valores[i]);
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(chaves, 0);
+        Arrays.fill(valores, 0);
+        tamanho = 0;
+    }
+
+    private int indice(long chave) {
+        return (int) ((chave * 0x9E3779B97F4A7C15L) >>> (64 - bits));
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new long[capacidade];
+        bits = Integer.numberOfTrailingZeros(capacidade);
+    }
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        long[] valoresAntigos = valores;
+        alocar(chaves.length << 1);
+        int mascara = chaves.length - 1;
+        for (int k = 0; k < chavesAntigas.length; k++) {
+            long chave = chavesAntigas[k];
+            if (chave != 0) {
+                int i = indice(chave);
+                while (chaves[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                chaves[i] = chave;
+                valores[i] = valoresAntigos[k];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Visitante {
+        void visitar(long chave, long valor);
+    }
+}
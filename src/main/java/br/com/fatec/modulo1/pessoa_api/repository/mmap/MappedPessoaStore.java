@@ -0,0 +1,425 @@
+package br.com.fatec.modulo1.pessoa_api.repository.mmap;
+
+import br.com.fatec.modulo1.pessoa_api.dto.PessoaParcial;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaDuplicadaException;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Backend de PessoaStore embarcado, sem servidor de banco (profile "mmap").
+ *
+ * As pessoas ficam num log append-only mapeado em memória (PessoaLog). Em
+ * memória ficam só os índices: id -&gt; posição no log (mapa de longs, sem
+ * boxing), o conjunto ordenado (nome, id) das pessoas ativas, que atende a
+ * listagem na mesma ordem dos outros backends, e a chave de duplicidade
+ * (Pessoa.chaveDuplicidade) -&gt; ids, que atende a regra de duplicidade. Na inicialização o log é
+ * reproduzido para reconstruir os índices; um registro interrompido por
+ * queda do processo é descartado. Quando a maior parte do arquivo já é de
+ * registros substituídos ou removidos, uma compactação periódica reescreve
+ * só os registros vivos num arquivo novo e troca os arquivos atomicamente.
+ *
+ * As escritas vão para o page cache e sobrevivem à queda do processo; para
+ * sobreviver à queda da máquina use pessoa-api.mmap.force-on-write=true.
+ */
+@Component
+@Profile("mmap")
+public class MappedPessoaStore implements PessoaStore, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(MappedPessoaStore.class);
+
+    private static final Comparator<Chave> ORDEM_LISTAGEM = Comparator
+            .comparing(Chave::nome, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparingLong(Chave::id);
+
+    private final Path arquivo;
+    private final int capacidadeInicial;
+    private final boolean forceOnWrite;
+    private final double limiteLixo;
+    private final long compactacaoMinimaBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongHashMap indicePorId = new LongLongHashMap(1024);
+    private final TreeSet<Chave> ativos = new TreeSet<>(ORDEM_LISTAGEM);
+    // Normalmente um id por chave; mais de um só em logs gravados antes da regra
+    private final Map<String, long[]> idsPorChave = new HashMap<>();
+    private final Timer compactacoes;
+    private PessoaLog log;
+    private long proximoId;
+    private long bytesVivos;
+
+    public MappedPessoaStore(
+            @Value("${pessoa-api.mmap.path:./data/pessoas.log}") Path arquivo,
+            @Value("${pessoa-api.mmap.initial-size-bytes:16777216}") int capacidadeInicial,
+            @Value("${pessoa-api.mmap.force-on-write:false}") boolean forceOnWrite,
+            @Value("${pessoa-api.mmap.compaction-garbage-ratio:0.5}") double limiteLixo,
+            @Value("${pessoa-api.mmap.compaction-min-bytes:1048576}") long compactacaoMinimaBytes,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.arquivo = arquivo;
+        this.capacidadeInicial = capacidadeInicial;
+        this.forceOnWrite = forceOnWrite;
+        this.limiteLixo = limiteLixo;
+        this.compactacaoMinimaBytes = compactacaoMinimaBytes;
+
+        long inicio = System.nanoTime();
+        this.log = PessoaLog.abrir(arquivo, capacidadeInicial, this::reproduzir);
+        reconstruirIndices();
+        logger.info("Log de pessoas {} carregado: {} pessoas ({} ativas) em {}ms",
+                arquivo, indicePorId.size(), ativos.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("pessoa.mmap.bytes", this, s -> s.lerComLock(l -> (double) l.bytesUsados()))
+                    .description("Bytes ocupados pelo log de pessoas")
+                    .tag("tipo", "total")
+                    .register(registry);
+            Gauge.builder("pessoa.mmap.bytes", this, s -> s.lerComLock(l -> (double) s.bytesVivos))
+                    .description("Bytes ocupados pelo log de pessoas")
+                    .tag("tipo", "vivos")
+                    .register(registry);
+            this.compactacoes = Timer.builder("pessoa.mmap.compactacao")
+                    .description("Duração das compactações do log de pessoas")
+                    .register(registry);
+        } else {
+            this.compactacoes = null;
+        }
+    }
+
+    @Override
+    public <S extends Pessoa> S save(S pessoa) {
+        lock.writeLock().lock();
+        try {
+            // Verificada sob o lock de escrita: duas criações simultâneas não
+            // passam juntas
+            String chave = Pessoa.chaveDuplicidade(pessoa.getNome(), pessoa.getDt_nascimento());
+            if (chave != null && pertenceAOutra(chave, pessoa.getId())) {
+                throw new PessoaDuplicadaException(chave);
+            }
+
+            if (pessoa.getId() == null) {
+                pessoa.setId(proximoId);
+            }
+            if (pessoa.getId() >= proximoId) {
+                proximoId = pessoa.getId() + 1;
+                log.setProximoId(proximoId);
+            }
+
+            long anterior = indicePorId.get(pessoa.getId());
+            if (anterior != LongLongHashMap.AUSENTE) {
+                desindexar(pessoa.getId(), (int) anterior);
+            }
+
+            int posicao = log.gravar(pessoa);
+            indicePorId.put(pessoa.getId(), posicao);
+            bytesVivos += log.tamanhoRegistro(posicao);
+            if (pessoa.getAtivo()) {
+                ativos.add(new Chave(pessoa.getNome(), pessoa.getId()));
+            }
+            if (chave != null) {
+                indexarChave(chave, pessoa.getId());
+            }
+            sincronizarSeNecessario();
+            return pessoa;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Pessoa> findById(Long id) {
+        if (id == null || id <= 0) {
+            return Optional.empty();
+        }
+        return lerComLock(l -> {
+            long posicao = indicePorId.get(id);
+            return posicao == LongLongHashMap.AUSENTE ? Optional.empty() : Optional.of(l.ler((int) posicao));
+        });
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        lock.writeLock().lock();
+        try {
+            long posicao = indicePorId.remove(id);
+            if (posicao == LongLongHashMap.AUSENTE) {
+                return;
+            }
+            desindexar(id, (int) posicao);
+            log.remover(id);
+            sincronizarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Pessoa> findByAtivoTrue(Pageable pageable) {
+        return listarAtivos(pageable, Function.identity());
+    }
+
+    @Override
+    public Page<PessoaParcial> findAtivosComCampos(List<String> campos, Pageable pageable) {
+        boolean id = campos.contains("id");
+        boolean dtNascimento = campos.contains("dt_nascimento");
+        boolean nome = campos.contains("nome");
+        boolean ativo = campos.contains("ativo");
+        return listarAtivos(pageable, pessoa -> new PessoaParcial(
+                id ? pessoa.getId() : null,
+                dtNascimento ? pessoa.getDt_nascimento() : null,
+                nome ? pessoa.getNome() : null,
+                ativo ? pessoa.getAtivo() : null));
+    }
+
+    @Override
+    public void flush() {
+        // Cada save já é gravado no log antes de retornar
+    }
+
+    @Override
+    public boolean existsByNomeAndNascimento(String nome, LocalDate dtNascimento) {
+        String chave = Pessoa.chaveDuplicidade(nome, dtNascimento);
+        return chave != null && lerComLock(l -> idsPorChave.containsKey(chave));
+    }
+
+    @Override
+    public long preencherChavesDeDuplicidade() {
+        // O índice de chaves é montado em memória a cada inicialização
+        return 0;
+    }
+
+    @Override
+    public void percorrerNomesENascimentos(BiConsumer<String, LocalDate> consumidor) {
+        lerComLock(l -> {
+            indicePorId.forEach((id, posicao) -> {
+                Pessoa pessoa = l.ler((int) posicao);
+                consumidor.accept(pessoa.getNome(), pessoa.getDt_nascimento());
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Reescreve o log só com os registros vivos quando a proporção de
+     * registros substituídos ou removidos passa do limite configurado.
+     */
+    @Scheduled(fixedDelayString = "${pessoa-api.mmap.compaction-interval-ms:60000}",
+            initialDelayString = "${pessoa-api.mmap.compaction-interval-ms:60000}")
+    public void compactarSeNecessario() {
+        boolean compactar = lerComLock(l -> l.bytesUsados() >= compactacaoMinimaBytes
+                && l.bytesUsados() - bytesVivos >= l.bytesUsados() * limiteLixo);
+        if (compactar) {
+            compactar();
+        }
+    }
+
+    void compactar() {
+        long inicio = System.nanoTime();
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".compactando");
+        PessoaLog novo = null;
+        lock.writeLock().lock();
+        try {
+            long antes = log.bytesUsados();
+            Files.deleteIfExists(temporario);
+
+            int capacidade = (int) Math.min(Integer.MAX_VALUE, Math.max(capacidadeInicial, bytesVivos * 2));
+            novo = PessoaLog.abrir(temporario, capacidade, (tipo, id, posicao) -> { });
+            novo.setProximoId(proximoId);
+
+            LongLongHashMap novasPosicoes = new LongLongHashMap(indicePorId.size());
+            PessoaLog atual = log;
+            PessoaLog destino = novo;
+            indicePorId.forEach((id, posicao) -> novasPosicoes.put(id, atual.copiarPara(destino, (int) posicao)));
+            novo.sincronizar();
+
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            sincronizarDiretorio();
+
+            // O canal do log novo continua válido: aponta para o mesmo
+            // arquivo, agora com o nome definitivo
+            log = novo;
+            atual.close();
+            indicePorId.clear();
+            novasPosicoes.forEach(indicePorId::put);
+
+            logger.info("Log de pessoas compactado: {} -> {} bytes", antes, novo.bytesUsados());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Falha ao compactar o log de pessoas; o log atual continua em uso", e);
+            if (novo != null && novo != log) {
+                novo.close();
+                try {
+                    Files.deleteIfExists(temporario);
+                } catch (IOException ignorada) {
+                    logger.debug("Arquivo temporário de compactação não removido: {}", temporario);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+            if (compactacoes != null) {
+                compactacoes.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> Page<T> listarAtivos(Pageable pageable, Function<Pessoa, T> conversor) {
+        lock.readLock().lock();
+        try {
+            // A ordem do índice é sempre (nome, id); o Sort do pageable é ignorado
+            List<T> conteudo = new ArrayList<>(pageable.getPageSize());
+            Iterator<Chave> chaves = ativos.iterator();
+            for (long pular = pageable.getOffset(); pular > 0 && chaves.hasNext(); pular--) {
+                chaves.next();
+            }
+            while (chaves.hasNext() && conteudo.size() < pageable.getPageSize()) {
+                long posicao = indicePorId.get(chaves.next().id());
+                conteudo.add(conversor.apply(log.ler((int) posicao)));
+            }
+            long total = ativos.size();
+            return PageableExecutionUtils.getPage(conteudo, pageable, () -> total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T lerComLock(Function<PessoaLog, T> leitura) {
+        lock.readLock().lock();
+        try {
+            return leitura.apply(log);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reproduzir(byte tipo, long id, int posicao) {
+        if (tipo == PessoaLog.GRAVACAO) {
+            indicePorId.put(id, posicao);
+        } else {
+            indicePorId.remove(id);
+        }
+        proximoId = Math.max(proximoId, id + 1);
+    }
+
+    private void reconstruirIndices() {
+        proximoId = Math.max(proximoId, log.getProximoId());
+        bytesVivos = 0;
+        ativos.clear();
+        idsPorChave.clear();
+        indicePorId.forEach((id, posicao) -> {
+            bytesVivos += log.tamanhoRegistro((int) posicao);
+            Pessoa pessoa = log.ler((int) posicao);
+            if (pessoa.getAtivo()) {
+                ativos.add(new Chave(pessoa.getNome(), id));
+            }
+            String chave = Pessoa.chaveDuplicidade(pessoa.getNome(), pessoa.getDt_nascimento());
+            if (chave != null) {
+                indexarChave(chave, id);
+            }
+        });
+    }
+
+    private void desindexar(long id, int posicao) {
+        bytesVivos -= log.tamanhoRegistro(posicao);
+        Pessoa pessoa = log.ler(posicao);
+        if (pessoa.getAtivo()) {
+            ativos.remove(new Chave(pessoa.getNome(), id));
+        }
+        String chave = Pessoa.chaveDuplicidade(pessoa.getNome(), pessoa.getDt_nascimento());
+        if (chave != null) {
+            desindexarChave(chave, id);
+        }
+    }
+
+    /**
+     * Indica se a chave é de outra pessoa. Um id que já tem a chave pode
+     * mantê-la mesmo dividindo-a com outro (duplicata gravada antes da regra).
+     */
+    private boolean pertenceAOutra(String chave, Long id) {
+        long[] ids = idsPorChave.get(chave);
+        if (ids == null) {
+            return false;
+        }
+        if (id != null) {
+            for (long dono : ids) {
+                if (dono == id) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void indexarChave(String chave, long id) {
+        idsPorChave.merge(chave, new long[]{id}, (ids, novo) -> {
+            long[] todos = Arrays.copyOf(ids, ids.length + 1);
+            todos[ids.length] = id;
+            return todos;
+        });
+    }
+
+    private void desindexarChave(String chave, long id) {
+        idsPorChave.computeIfPresent(chave, (c, ids) -> {
+            long[] restantes = Arrays.stream(ids).filter(outro -> outro != id).toArray();
+            return restantes.length == 0 ? null : restantes;
+        });
+    }
+
+    private void sincronizarSeNecessario() {
+        if (forceOnWrite) {
+            log.sincronizar();
+        }
+    }
+
+    private void sincronizarDiretorio() {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            logger.debug("Não foi possível sincronizar o diretório {}: {}", diretorio, e.getMessage());
+        }
+    }
+
+    private record Chave(String nome, long id) {
+    }
+}
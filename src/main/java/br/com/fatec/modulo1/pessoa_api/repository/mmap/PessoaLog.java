@@ -0,0 +1,274 @@
+package br.com.fatec.modulo1.pessoa_api.repository.mmap;
+
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Arquivo de log append-only mapeado em memória com os registros de Pessoa.
+ *
+ * Formato: cabeçalho (magic, versão, próximo id) seguido de registros
+ * [tamanho][tipo][id][dados...][crc32c]. Um registro de gravação traz a
+ * pessoa inteira; um de remoção, só o id. O tamanho é escrito por último,
+ * então um registro interrompido no meio fica com tamanho zero ou com CRC
+ * inválido e é descartado na reabertura, junto com tudo o que vem depois.
+ *
+ * Não é thread-safe: o MappedPessoaStore serializa as escritas e impede
+ * leituras durante o remapeamento.
+ */
+class PessoaLog implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PessoaLog.class);
+
+    static final byte GRAVACAO = 1;
+    static final byte REMOCAO = 2;
+
+    private static final int MAGIC = 0x50455353;
+    private static final int VERSAO = 1;
+    private static final int CABECALHO = 16;
+    private static final int POSICAO_PROXIMO_ID = 8;
+    // tipo + id
+    private static final int PREFIXO = 1 + Long.BYTES;
+    private static final long DATA_NULA = Long.MIN_VALUE;
+
+    private final Path arquivo;
+    private final FileChannel canal;
+    private MappedByteBuffer buffer;
+    private int fim;
+
+    private PessoaLog(Path arquivo, FileChannel canal, MappedByteBuffer buffer, int fim) {
+        this.arquivo = arquivo;
+        this.canal = canal;
+        this.buffer = buffer;
+        this.fim = fim;
+    }
+
+    /**
+     * Abre (ou cria) o log. Os registros válidos são entregues ao leitor na
+     * ordem em que foram escritos; um final corrompido é descartado.
+     */
+    static PessoaLog abrir(Path arquivo, int capacidadeInicial, Leitor leitor) {
+        try {
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            FileChannel canal = FileChannel.open(arquivo,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long capacidade = Math.max(canal.size(), Math.max(capacidadeInicial, CABECALHO));
+            MappedByteBuffer buffer = mapear(canal, capacidade);
+
+            if (buffer.getInt(0) == 0) {
+                buffer.putInt(4, VERSAO);
+                buffer.putLong(POSICAO_PROXIMO_ID, 1);
+                buffer.putInt(0, MAGIC);
+            } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSAO) {
+                canal.close();
+                throw new IllegalStateException("Arquivo não é um log de pessoas válido: " + arquivo);
+            }
+
+            PessoaLog log = new PessoaLog(arquivo, canal, buffer, CABECALHO);
+            log.reproduzir(leitor);
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o log " + arquivo, e);
+        }
+    }
+
+    Path getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * Bytes ocupados por registros (sem o cabeçalho).
+     */
+    long bytesUsados() {
+        return fim - CABECALHO;
+    }
+
+    long getProximoId() {
+        return buffer.getLong(POSICAO_PROXIMO_ID);
+    }
+
+    void setProximoId(long proximoId) {
+        buffer.putLong(POSICAO_PROXIMO_ID, proximoId);
+    }
+
+    /**
+     * Acrescenta a gravação da pessoa e devolve a posição do registro.
+     */
+    int gravar(Pessoa pessoa) {
+        byte[] nome = pessoa.getNome() != null ? pessoa.getNome().getBytes(StandardCharsets.UTF_8) : null;
+        int tamanho = PREFIXO + Long.BYTES + 1 + Integer.BYTES + (nome != null ? nome.length : 0);
+        int posicao = reservar(tamanho);
+
+        int p = posicao + Integer.BYTES;
+        buffer.put(p, GRAVACAO);
+        buffer.putLong(p + 1, pessoa.getId());
+        LocalDate nascimento = pessoa.getDt_nascimento();
+        buffer.putLong(p + PREFIXO, nascimento != null ? nascimento.toEpochDay() : DATA_NULA);
+        buffer.put(p + PREFIXO + Long.BYTES, (byte) (pessoa.getAtivo() ? 1 : 0));
+        buffer.putInt(p + PREFIXO + Long.BYTES + 1, nome != null ? nome.length : -1);
+        if (nome != null) {
+            buffer.put(p + PREFIXO + Long.BYTES + 1 + Integer.BYTES, nome);
+        }
+        confirmar(posicao, tamanho);
+        return posicao;
+    }
+
+    /**
+     * Acrescenta a remoção do id.
+     */
+    void remover(long id) {
+        int posicao = reservar(PREFIXO);
+        buffer.put(posicao + Integer.BYTES, REMOCAO);
+        buffer.putLong(posicao + Integer.BYTES + 1, id);
+        confirmar(posicao, PREFIXO);
+    }
+
+    /**
+     * Copia o registro na posição informada para o fim de outro log.
+     */
+    int copiarPara(PessoaLog destino, int posicao) {
+        int total = tamanhoRegistro(posicao);
+        int novaPosicao = destino.reservar(total - Integer.BYTES * 2);
+        destino.buffer.put(novaPosicao + Integer.BYTES, buffer, posicao + Integer.BYTES, total - Integer.BYTES);
+        destino.buffer.putInt(novaPosicao, buffer.getInt(posicao));
+        destino.fim = novaPosicao + total;
+        return novaPosicao;
+    }
+
+    /**
+     * Tamanho total do registro, incluindo o campo de tamanho e o CRC.
+     */
+    int tamanhoRegistro(int posicao) {
+        return buffer.getInt(posicao) + Integer.BYTES * 2;
+    }
+
+    Pessoa ler(int posicao) {
+        int p = posicao + Integer.BYTES;
+        long id = buffer.getLong(p + 1);
+        long dias = buffer.getLong(p + PREFIXO);
+        boolean ativo = buffer.get(p + PREFIXO + Long.BYTES) == 1;
+        return new Pessoa(id, dias == DATA_NULA ? null : LocalDate.ofEpochDay(dias), lerNome(posicao), ativo);
+    }
+
+    String lerNome(int posicao) {
+        int p = posicao + Integer.BYTES + PREFIXO + Long.BYTES + 1;
+        int tamanhoNome = buffer.getInt(p);
+        if (tamanhoNome < 0) {
+            return null;
+        }
+        byte[] nome = new byte[tamanhoNome];
+        buffer.get(p + Integer.BYTES, nome);
+        return new String(nome, StandardCharsets.UTF_8);
+    }
+
+    boolean lerAtivo(int posicao) {
+        return buffer.get(posicao + Integer.BYTES + PREFIXO + Long.BYTES) == 1;
+    }
+
+    /**
+     * Grava no disco as páginas alteradas do mapeamento.
+     */
+    void sincronizar() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            canal.close();
+        } catch (IOException e) {
+            logger.warn("Falha ao fechar o log {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    private void reproduzir(Leitor leitor) {
+        CRC32C crc = new CRC32C();
+        int posicao = CABECALHO;
+        int capacidade = buffer.capacity();
+        while (posicao + Integer.BYTES <= capacidade) {
+            int tamanho = buffer.getInt(posicao);
+            if (tamanho == 0) {
+                break;
+            }
+            if (tamanho < PREFIXO || (long) posicao + tamanho + Integer.BYTES * 2 > capacidade
+                    || !crcValido(crc, posicao, tamanho)) {
+                logger.warn("Registro incompleto ou corrompido na posição {} de {}: descartando o final do log",
+                        posicao, arquivo);
+                // Zera o restante para que registros antigos não reapareçam
+                // depois das próximas escritas
+                for (int i = posicao; i < capacidade; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.force();
+                break;
+            }
+
+            byte tipo = buffer.get(posicao + Integer.BYTES);
+            long id = buffer.getLong(posicao + Integer.BYTES + 1);
+            leitor.ler(tipo, id, posicao);
+            posicao += tamanho + Integer.BYTES * 2;
+        }
+        fim = posicao;
+    }
+
+    private boolean crcValido(CRC32C crc, int posicao, int tamanho) {
+        crc.reset();
+        crc.update(buffer.slice(posicao + Integer.BYTES, tamanho));
+        return (int) crc.getValue() == buffer.getInt(posicao + Integer.BYTES + tamanho);
+    }
+
+    private int reservar(int tamanho) {
+        long necessario = (long) fim + tamanho + Integer.BYTES * 2;
+        if (necessario > buffer.capacity()) {
+            crescer(necessario);
+        }
+        return fim;
+    }
+
+    private void confirmar(int posicao, int tamanho) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(posicao + Integer.BYTES, tamanho));
+        buffer.putInt(posicao + Integer.BYTES + tamanho, (int) crc.getValue());
+        buffer.putInt(posicao, tamanho);
+        fim = posicao + tamanho + Integer.BYTES * 2;
+    }
+
+    private void crescer(long necessario) {
+        long capacidade = Math.max(necessario, (long) buffer.capacity() * 2);
+        if (capacidade > Integer.MAX_VALUE) {
+            if (necessario > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Log de pessoas excedeu o limite de 2 GB: " + arquivo);
+            }
+            capacidade = Integer.MAX_VALUE;
+        }
+        try {
+            buffer = mapear(canal, capacidade);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ampliar o log " + arquivo, e);
+        }
+        logger.debug("Log {} ampliado para {} bytes", arquivo, capacidade);
+    }
+
+    private static MappedByteBuffer mapear(FileChannel canal, long capacidade) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidade);
+    }
+
+    @FunctionalInterface
+    interface Leitor {
+        void ler(byte tipo, long id, int posicao);
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.LongSupplier;
+
+/**
+ * Gera ids globalmente únicos reservando blocos numa tabela do shard 0.
+ *
+ * Cada instância reserva tamanhoBloco ids por vez com um único UPDATE, então
+ * os inserts não dependem de auto_increment por shard nem de uma ida ao banco
+ * por id, e o id é conhecido antes de escolher o shard.
+ */
+class ShardIdAllocator {
+    private static final Logger logger = LoggerFactory.getLogger(ShardIdAllocator.class);
+
+    private static final String SEQUENCIA = "pessoas";
+
+    private final JdbcTemplate catalogo;
+    private final TransactionTemplate transacao;
+    private final int tamanhoBloco;
+    private long proximo;
+    private long limite;
+
+    ShardIdAllocator(DataSource catalogo, int tamanhoBloco) {
+        this.catalogo = new JdbcTemplate(catalogo);
+        this.transacao = new TransactionTemplate(new DataSourceTransactionManager(catalogo));
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Cria a sequência se ainda não existir, começando depois do maior id
+     * já gravado nos shards.
+     */
+    void inicializar(LongSupplier maiorIdExistente) {
+        catalogo.execute("CREATE TABLE IF NOT EXISTS pessoa_id_blocos ("
+                + "nome VARCHAR(64) PRIMARY KEY, "
+                + "proximo BIGINT NOT NULL)");
+
+        Integer existe = catalogo.queryForObject(
+                "SELECT COUNT(*) FROM pessoa_id_blocos WHERE nome = ?", Integer.class, SEQUENCIA);
+        if (existe != null && existe > 0) {
+            return;
+        }
+
+        long inicio = maiorIdExistente.getAsLong() + 1;
+        try {
+            catalogo.update("INSERT INTO pessoa_id_blocos (nome, proximo) VALUES (?, ?)", SEQUENCIA, inicio);
+            logger.info("Sequência de ids dos shards criada a partir de {}", inicio);
+        } catch (DuplicateKeyException e) {
+            logger.debug("Sequência de ids criada por outra instância");
+        }
+    }
+
+    synchronized long proximoId() {
+        if (proximo >= limite) {
+            reservarBloco();
+        }
+        return proximo++;
+    }
+
+    private void reservarBloco() {
+        Long fim = transacao.execute(status -> {
+            catalogo.update("UPDATE pessoa_id_blocos SET proximo = proximo + ? WHERE nome = ?", tamanhoBloco, SEQUENCIA);
+            return catalogo.queryForObject("SELECT proximo FROM pessoa_id_blocos WHERE nome = ?", Long.class, SEQUENCIA);
+        });
+        if (fim == null) {
+            throw new IllegalStateException("Sequência de ids dos shards não encontrada");
+        }
+        limite = fim;
+        proximo = fim - tamanhoBloco;
+        logger.debug("Bloco de ids reservado: [{}, {})", proximo, limite);
+    }
+}
@@ -0,0 +1,231 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaDuplicadaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chaves de duplicidade (nome normalizado, dt_nascimento) de todas as
+ * pessoas, numa tabela do shard 0 com a chave como chave primária.
+ *
+ * As pessoas ficam espalhadas pelo id, então uma restrição única em cada
+ * shard não veria duas pessoas iguais em shards diferentes. Aqui a chave é
+ * reservada antes de gravar a pessoa: de duas criações simultâneas, só uma
+ * consegue o INSERT e a outra recebe PessoaDuplicadaException. Numa troca de
+ * nome ou data, a chave anterior só é solta depois de a pessoa ser gravada
+ * (confirmar) e a nova é desfeita se a gravação falhar (desfazer).
+ */
+class ShardKeyRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(ShardKeyRegistry.class);
+
+    private static final int LOTE = 500;
+
+    private final JdbcTemplate catalogo;
+
+    ShardKeyRegistry(JdbcTemplate catalogo) {
+        this.catalogo = catalogo;
+    }
+
+    /**
+     * Cria a tabela. No MySQL a chave usa collation binária: ela já vem
+     * normalizada, e a comparação do banco não pode juntar chaves que o
+     * Java considera diferentes (ex.: "ß" e "ss" no *_ai_ci).
+     */
+    void inicializar(boolean mysql) {
+        String colunaChave = mysql
+                ? "nome_chave VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL"
+                : "nome_chave VARCHAR(255) NOT NULL";
+        catalogo.execute("CREATE TABLE IF NOT EXISTS pessoa_chaves ("
+                + colunaChave + ", "
+                + "dt_nascimento DATE NOT NULL, "
+                + "id BIGINT NOT NULL, "
+                + "PRIMARY KEY (nome_chave, dt_nascimento))");
+        ShardSchema.criarIndice(catalogo, "idx_pessoa_chaves_id", "pessoa_chaves", "id");
+    }
+
+    /**
+     * Reserva a chave da pessoa para o id, mantendo as anteriores até a
+     * confirmação.
+     *
+     * @throws PessoaDuplicadaException se a chave já pertence a outro id
+     */
+    Reserva reservar(Pessoa pessoa) {
+        long id = pessoa.getId();
+        String chave = Pessoa.chaveDuplicidade(pessoa.getNome(), pessoa.getDt_nascimento());
+        String nomeChave = chave != null ? Pessoa.normalizarNome(pessoa.getNome()) : null;
+
+        List<String> atuais = catalogo.query("SELECT nome_chave, dt_nascimento FROM pessoa_chaves WHERE id = ?",
+                (rs, rowNum) -> rs.getString("nome_chave") + '|' + rs.getObject("dt_nascimento", LocalDate.class), id);
+        boolean nova = chave != null && !atuais.contains(chave);
+        if (nova) {
+            try {
+                catalogo.update("INSERT INTO pessoa_chaves (nome_chave, dt_nascimento, id) VALUES (?, ?, ?)",
+                        nomeChave, pessoa.getDt_nascimento(), id);
+            } catch (DuplicateKeyException e) {
+                throw new PessoaDuplicadaException(chave, e);
+            }
+        }
+        boolean obsoletas = atuais.stream().anyMatch(atual -> !atual.equals(chave));
+        return new Reserva(id, nomeChave, pessoa.getDt_nascimento(), nova, obsoletas);
+    }
+
+    /**
+     * Solta as chaves anteriores do id, depois de a pessoa ter sido gravada.
+     */
+    void confirmar(Reserva reserva) {
+        if (!reserva.obsoletas()) {
+            return;
+        }
+        if (reserva.nomeChave() == null) {
+            liberar(reserva.id());
+        } else {
+            catalogo.update("DELETE FROM pessoa_chaves WHERE id = ? AND NOT (nome_chave = ? AND dt_nascimento = ?)",
+                    reserva.id(), reserva.nomeChave(), reserva.dtNascimento());
+        }
+    }
+
+    /**
+     * Solta a chave reservada quando a gravação da pessoa falhou; as
+     * anteriores continuam valendo.
+     */
+    void desfazer(Reserva reserva) {
+        if (reserva.nova()) {
+            catalogo.update("DELETE FROM pessoa_chaves WHERE id = ? AND nome_chave = ? AND dt_nascimento = ?",
+                    reserva.id(), reserva.nomeChave(), reserva.dtNascimento());
+        }
+    }
+
+    void liberar(long id) {
+        catalogo.update("DELETE FROM pessoa_chaves WHERE id = ?", id);
+    }
+
+    boolean existe(String nome, LocalDate dtNascimento) {
+        if (nome == null || dtNascimento == null) {
+            return false;
+        }
+        return !catalogo.queryForList(
+                "SELECT 1 FROM pessoa_chaves WHERE nome_chave = ? AND dt_nascimento = ?",
+                Integer.class, Pessoa.normalizarNome(nome), dtNascimento).isEmpty();
+    }
+
+    /**
+     * Remove chaves que não correspondem mais a nenhuma pessoa: o id não
+     * existe em nenhum shard, ou a pessoa tem hoje outro nome ou data. Sobram
+     * de uma gravação interrompida entre a reserva da chave e a escrita no
+     * shard (ou entre a escrita e a confirmação). Roda na inicialização, antes
+     * do tráfego: uma reserva em andamento seria tomada por órfã.
+     */
+    long removerOrfas(List<JdbcTemplate> shards) {
+        long removidas = 0;
+        long ultimoId = Long.MIN_VALUE;
+        List<Long> ids;
+        do {
+            ids = catalogo.queryForList("SELECT DISTINCT id FROM pessoa_chaves WHERE id > ? ORDER BY id LIMIT ?",
+                    Long.class, ultimoId, LOTE);
+            if (ids.isEmpty()) {
+                break;
+            }
+            ultimoId = ids.get(ids.size() - 1);
+
+            String emIds = "(" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+            Object[] parametros = ids.toArray();
+            // A pessoa pode estar em qualquer shard (ou em dois, durante o rebalanceamento)
+            Map<Long, Set<String>> vigentes = new HashMap<>();
+            for (JdbcTemplate shard : shards) {
+                shard.query("SELECT id, nome, dt_nascimento FROM pessoas_table WHERE id IN " + emIds,
+                        (RowCallbackHandler) rs -> vigentes.computeIfAbsent(rs.getLong("id"), i -> new HashSet<>())
+                                .add(Pessoa.chaveDuplicidade(rs.getString("nome"),
+                                        rs.getObject("dt_nascimento", LocalDate.class))),
+                        parametros);
+            }
+
+            List<Object[]> orfas = new ArrayList<>();
+            catalogo.query("SELECT id, nome_chave, dt_nascimento FROM pessoa_chaves WHERE id IN " + emIds,
+                    (RowCallbackHandler) rs -> {
+                        long id = rs.getLong("id");
+                        LocalDate dtNascimento = rs.getObject("dt_nascimento", LocalDate.class);
+                        String chave = rs.getString("nome_chave") + '|' + dtNascimento;
+                        if (!vigentes.getOrDefault(id, Set.of()).contains(chave)) {
+                            orfas.add(new Object[]{id, rs.getString("nome_chave"), dtNascimento});
+                        }
+                    }, parametros);
+            if (!orfas.isEmpty()) {
+                catalogo.batchUpdate("DELETE FROM pessoa_chaves WHERE id = ? AND nome_chave = ? AND dt_nascimento = ?",
+                        orfas);
+                removidas += orfas.size();
+            }
+        } while (ids.size() == LOTE);
+
+        if (removidas > 0) {
+            logger.warn("{} chaves de duplicidade sem pessoa correspondente foram removidas", removidas);
+        }
+        return removidas;
+    }
+
+    /**
+     * Registra as chaves das pessoas gravadas antes da tabela existir. Se o
+     * total de chaves já bate com o de pessoas com nome e data, não há o que
+     * preencher e os shards não são percorridos.
+     */
+    long preencher(List<JdbcTemplate> shards) {
+        long pessoas = 0;
+        for (JdbcTemplate shard : shards) {
+            pessoas += shard.queryForObject("SELECT COUNT(*) FROM pessoas_table "
+                    + "WHERE nome IS NOT NULL AND dt_nascimento IS NOT NULL", Long.class);
+        }
+        Long chaves = catalogo.queryForObject("SELECT COUNT(*) FROM pessoa_chaves", Long.class);
+        if (chaves != null && chaves >= pessoas) {
+            return 0;
+        }
+
+        long[] preenchidas = {0};
+        for (JdbcTemplate shard : shards) {
+            shard.query("SELECT id, nome, dt_nascimento FROM pessoas_table "
+                    + "WHERE nome IS NOT NULL AND dt_nascimento IS NOT NULL", (RowCallbackHandler) rs -> {
+                long id = rs.getLong("id");
+                String nomeChave = Pessoa.normalizarNome(rs.getString("nome"));
+                LocalDate dtNascimento = rs.getObject("dt_nascimento", LocalDate.class);
+                List<Long> dono = catalogo.queryForList(
+                        "SELECT id FROM pessoa_chaves WHERE nome_chave = ? AND dt_nascimento = ?",
+                        Long.class, nomeChave, dtNascimento);
+                if (!dono.isEmpty()) {
+                    if (dono.get(0) != id) {
+                        logger.warn("Pessoa ID={} repete nome e data de nascimento da pessoa ID={}; ficou sem chave de duplicidade",
+                                id, dono.get(0));
+                    }
+                    return;
+                }
+                try {
+                    catalogo.update("INSERT INTO pessoa_chaves (nome_chave, dt_nascimento, id) VALUES (?, ?, ?)",
+                            nomeChave, dtNascimento, id);
+                    preenchidas[0]++;
+                } catch (DuplicateKeyException e) {
+                    logger.warn("Pessoa ID={} repete nome e data de nascimento de outra; ficou sem chave de duplicidade", id);
+                }
+            });
+        }
+        return preenchidas[0];
+    }
+
+    record Reserva(long id, String nomeChave, LocalDate dtNascimento, boolean nova, boolean obsoletas) {
+        /**
+         * Nada reservado nem a soltar: a pessoa segue sem chave.
+         */
+        static Reserva nenhuma(long id) {
+            return new Reserva(id, null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Move cada pessoa para o shard indicado pela configuração atual. Para
+ * adicionar um shard: acrescente a URL ao fim de pessoa-api.sharding.urls e
+ * suba uma instância com pessoa-api.sharding.rebalance=true.
+ *
+ * Roda como o primeiro ApplicationRunner, antes da carga do filtro de
+ * duplicidade e do warm-up, e a aplicação só fica pronta para tráfego
+ * depois dele. Cada registro é gravado no destino antes de sair da origem,
+ * então uma interrupção deixa no máximo cópias, que a próxima execução
+ * remove; enquanto isso, buscas por id que falham no shard novo olham os
+ * demais.
+ *
+ * Durante o rebalanceamento as escritas já vão para o shard novo. Por isso
+ * uma linha que já existe no destino é mais nova que a da origem e é
+ * mantida. Cada lote é relido e movido com as escritas desta instância
+ * suspensas (ShardedPessoaStore.semEscritas), então uma remoção não é
+ * desfeita por uma cópia lida antes dela. Outras instâncias devem estar
+ * paradas ou já com a nova lista de shards.
+ */
+@Component
+@Profile("sharding")
+@ConditionalOnProperty(name = "pessoa-api.sharding.rebalance", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardRebalancer implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private final ShardedPessoaStore store;
+    private final int tamanhoLote;
+
+    public ShardRebalancer(
+            ShardedPessoaStore store,
+            @Value("${pessoa-api.sharding.rebalance-batch-size:500}") int tamanhoLote) {
+        this.store = store;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<JdbcTemplate> shards = store.shards();
+        logger.info("Iniciando rebalanceamento de {} shards", shards.size());
+
+        long inicio = System.currentTimeMillis();
+        long movidas = 0;
+        store.setRebalanceando(true);
+        try {
+            for (int origem = 0; origem < shards.size(); origem++) {
+                long movidasOrigem = rebalancearShard(shards, origem);
+                logger.info("Shard {}: {} pessoas movidas", origem, movidasOrigem);
+                movidas += movidasOrigem;
+            }
+        } finally {
+            store.setRebalanceando(false);
+        }
+
+        logger.info("Rebalanceamento concluído: {} pessoas movidas em {}ms",
+                movidas, System.currentTimeMillis() - inicio);
+    }
+
+    private long rebalancearShard(List<JdbcTemplate> shards, int origem) {
+        JdbcTemplate shardOrigem = shards.get(origem);
+        long movidas = 0;
+        long ultimoId = Long.MIN_VALUE;
+
+        while (true) {
+            List<Pessoa> lote = shardOrigem.query(
+                    "SELECT " + ShardedPessoaStore.COLUNAS + " FROM pessoas_table WHERE id > ? ORDER BY id LIMIT ?",
+                    ShardedPessoaStore.PESSOA_MAPPER, ultimoId, tamanhoLote);
+            if (lote.isEmpty()) {
+                return movidas;
+            }
+            ultimoId = lote.get(lote.size() - 1).getId();
+
+            Map<Integer, List<Long>> porDestino = new HashMap<>();
+            for (Pessoa pessoa : lote) {
+                int destino = store.shardIndexDe(pessoa.getId());
+                if (destino != origem) {
+                    porDestino.computeIfAbsent(destino, d -> new ArrayList<>()).add(pessoa.getId());
+                }
+            }
+
+            for (Map.Entry<Integer, List<Long>> entrada : porDestino.entrySet()) {
+                JdbcTemplate destino = shards.get(entrada.getKey());
+                movidas += store.semEscritas(() -> mover(entrada.getValue(), shardOrigem, destino));
+            }
+        }
+    }
+
+    /**
+     * Move os ids, relendo-os na origem: o que foi removido desde a leitura
+     * do lote não volta. Ids que já estão no destino (escrita feita durante
+     * o rebalanceamento ou cópia de uma execução interrompida) ficam com a
+     * versão do destino.
+     */
+    private static int mover(List<Long> ids, JdbcTemplate origem, JdbcTemplate destino) {
+        String emIds = "(" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        Object[] parametros = ids.toArray();
+        List<Pessoa> pessoas = origem.query(
+                "SELECT " + ShardedPessoaStore.COLUNAS + " FROM pessoas_table WHERE id IN " + emIds,
+                ShardedPessoaStore.PESSOA_MAPPER, parametros);
+        Set<Long> noDestino = new HashSet<>(destino.queryForList(
+                "SELECT id FROM pessoas_table WHERE id IN " + emIds, Long.class, parametros));
+
+        List<Object[]> linhas = new ArrayList<>(pessoas.size());
+        List<Object[]> movidas = new ArrayList<>(pessoas.size());
+        for (Pessoa pessoa : pessoas) {
+            movidas.add(new Object[]{pessoa.getId()});
+            if (!noDestino.contains(pessoa.getId())) {
+                linhas.add(new Object[]{pessoa.getId(), pessoa.getDt_nascimento(), pessoa.getNome(), pessoa.getAtivo()});
+            }
+        }
+
+        destino.batchUpdate("INSERT INTO pessoas_table (" + ShardedPessoaStore.COLUNAS + ") VALUES (?, ?, ?, ?)", linhas);
+        origem.batchUpdate("DELETE FROM pessoas_table WHERE id = ?", movidas);
+        return movidas.size();
+    }
+}
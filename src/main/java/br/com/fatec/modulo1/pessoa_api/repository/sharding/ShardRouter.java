@@ -0,0 +1,24 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+/**
+ * Escolhe o shard de um id com jump consistent hash (Lamping e Veach): ao
+ * passar de N para N+1 shards, só ~1/(N+1) dos ids muda de shard, e sempre
+ * para o shard novo.
+ */
+final class ShardRouter {
+
+    private ShardRouter() {
+    }
+
+    static int shardFor(long id, int shards) {
+        long chave = id;
+        long bucket = -1;
+        long proximo = 0;
+        while (proximo < shards) {
+            bucket = proximo;
+            chave = chave * 2862933555777941757L + 1;
+            proximo = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((chave >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
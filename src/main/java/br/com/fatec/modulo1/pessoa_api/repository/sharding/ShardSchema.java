@@ -0,0 +1,87 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * DDL dos shards, válido no MySQL e no H2.
+ *
+ * O MySQL não aceita CREATE INDEX IF NOT EXISTS; os índices são criados
+ * depois de conferir nos metadados do banco que ainda não existem, o que
+ * também cobre tabelas criadas por versões anteriores sem eles.
+ */
+final class ShardSchema {
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchema.class);
+
+    static final String NOME_BINARIO_MYSQL = "VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin";
+
+    private ShardSchema() {
+    }
+
+    /**
+     * Cria a tabela de pessoas do shard. nome usa collation binária para que
+     * o ORDER BY de cada shard siga a mesma ordem do merge (String.compareTo):
+     * com a collation padrão do MySQL (utf8mb4_0900_ai_ci), "ana" e "Ana" ou
+     * "Álvaro" e "Alvaro" sairiam numa ordem que o merge não reproduz. O H2
+     * já compara strings de forma binária. A única diferença que resta é
+     * entre caracteres fora do BMP, que o utf8mb4_bin ordena por code point.
+     */
+    static void criarTabelaPessoas(JdbcTemplate shard, boolean mysql) {
+        String colunaNome = mysql ? "nome " + NOME_BINARIO_MYSQL : "nome VARCHAR(255)";
+        shard.execute("CREATE TABLE IF NOT EXISTS pessoas_table ("
+                + "id BIGINT PRIMARY KEY, "
+                + "dt_nascimento DATE, "
+                + colunaNome + ", "
+                + "ativo BOOLEAN NOT NULL)");
+        if (mysql && !nomeBinario(shard)) {
+            // Tabela criada antes com a collation padrão; o MODIFY reescreve a
+            // tabela, então só roda uma vez
+            logger.info("Convertendo pessoas_table.nome para utf8mb4_bin");
+            shard.execute("ALTER TABLE pessoas_table MODIFY nome " + NOME_BINARIO_MYSQL);
+        }
+        criarIndice(shard, "idx_pessoas_ativo_nome", "pessoas_table", "ativo, nome, id");
+    }
+
+    static void criarIndice(JdbcTemplate banco, String indice, String tabela, String colunas) {
+        if (!existeIndice(banco, indice, tabela)) {
+            banco.execute("CREATE INDEX " + indice + " ON " + tabela + " (" + colunas + ")");
+        }
+    }
+
+    static boolean existeIndice(JdbcTemplate banco, String indice, String tabela) {
+        return Boolean.TRUE.equals(banco.execute((ConnectionCallback<Boolean>) conexao -> {
+            DatabaseMetaData metadados = conexao.getMetaData();
+            String nomeTabela = metadados.storesUpperCaseIdentifiers() ? tabela.toUpperCase(Locale.ROOT) : tabela;
+            try (ResultSet indices = metadados.getIndexInfo(
+                    conexao.getCatalog(), conexao.getSchema(), nomeTabela, false, false)) {
+                while (indices.next()) {
+                    if (indice.equalsIgnoreCase(indices.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    static boolean isMySql(JdbcTemplate banco) {
+        String produto = banco.execute((ConnectionCallback<String>) conexao ->
+                conexao.getMetaData().getDatabaseProductName());
+        return produto != null && (produto.startsWith("MySQL") || produto.startsWith("MariaDB"));
+    }
+
+    private static boolean nomeBinario(JdbcTemplate shard) {
+        List<String> collation = shard.queryForList("SELECT collation_name FROM information_schema.columns "
+                        + "WHERE table_schema = SCHEMA() AND LOWER(table_name) = 'pessoas_table' "
+                        + "AND LOWER(column_name) = 'nome'",
+                String.class);
+        return !collation.isEmpty() && "utf8mb4_bin".equalsIgnoreCase(collation.get(0));
+    }
+}
@@ -0,0 +1,456 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import br.com.fatec.modulo1.pessoa_api.dto.PessoaParcial;
+import br.com.fatec.modulo1.pessoa_api.metrics.ConnectionMetricsDataSource;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaDuplicadaException;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaStore;
+import br.com.fatec.modulo1.pessoa_api.resilience.Deadline;
+import br.com.fatec.modulo1.pessoa_api.resilience.DeadlineExceededException;
+import br.com.fatec.modulo1.pessoa_api.resilience.DeadlineJdbcTemplate;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Backend de PessoaStore que distribui as pessoas entre N bancos pelo id
+ * (profile "sharding").
+ *
+ * Escritas e buscas por id vão direto ao shard do id (ShardRouter). A
+ * listagem consulta todos os shards em paralelo, cada um já ordenado por
+ * (nome, id), e faz um merge k-way em streaming até completar a página. A
+ * coluna nome é criada com collation binária para que a ordem do banco
+ * coincida com a do merge. A regra de duplicidade vale entre shards: as
+ * chaves ficam numa tabela única no shard 0 (ShardKeyRegistry).
+ */
+@Component
+@Profile("sharding")
+public class ShardedPessoaStore implements PessoaStore, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ShardedPessoaStore.class);
+
+    static final String COLUNAS = "id, dt_nascimento, nome, ativo";
+
+    static final RowMapper<Pessoa> PESSOA_MAPPER = (rs, rowNum) -> new Pessoa(
+            rs.getLong("id"),
+            rs.getObject("dt_nascimento", LocalDate.class),
+            rs.getString("nome"),
+            rs.getBoolean("ativo"));
+
+    // Mesma ordem do ORDER BY nome, id dos shards (ver ShardSchema)
+    private static final Comparator<Pessoa> ORDEM_LISTAGEM = Comparator
+            .comparing(Pessoa::getNome, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Pessoa::getId);
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final ShardIdAllocator idAllocator;
+    private final ShardKeyRegistry chaves;
+    private final ExecutorService consultas;
+    private volatile boolean rebalanceando;
+    // Escritas compartilham; o rebalanceamento trava para mover um lote
+    private final ReentrantReadWriteLock movimentacao = new ReentrantReadWriteLock();
+
+    public ShardedPessoaStore(
+            @Value("${pessoa-api.sharding.urls}") List<String> urls,
+            @Value("${pessoa-api.sharding.username:}") String username,
+            @Value("${pessoa-api.sharding.password:}") String password,
+            @Value("${pessoa-api.sharding.pool-size:10}") int poolSize,
+            @Value("${pessoa-api.sharding.id-block-size:100}") int idBlockSize,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um shard em pessoa-api.sharding.urls");
+        }
+
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + i);
+            pool.setJdbcUrl(urls.get(i));
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            pools.add(pool);
+
+            JdbcTemplate shard = new DeadlineJdbcTemplate(new ConnectionMetricsDataSource(pool, meterRegistry));
+            ShardSchema.criarTabelaPessoas(shard, ShardSchema.isMySql(shard));
+            shards.add(shard);
+        }
+
+        this.consultas = Executors.newFixedThreadPool(urls.size() * 2,
+                Thread.ofPlatform().name("shard-consulta-", 0).daemon(true).factory());
+
+        this.idAllocator = new ShardIdAllocator(pools.get(0), idBlockSize);
+        this.idAllocator.inicializar(this::maiorId);
+        this.chaves = new ShardKeyRegistry(shards.get(0));
+        this.chaves.inicializar(ShardSchema.isMySql(shards.get(0)));
+
+        logger.info("Armazenamento particionado em {} shards", shards.size());
+    }
+
+    @Override
+    public <S extends Pessoa> S save(S pessoa) {
+        movimentacao.readLock().lock();
+        try {
+            return gravar(pessoa);
+        } finally {
+            movimentacao.readLock().unlock();
+        }
+    }
+
+    private <S extends Pessoa> S gravar(S pessoa) {
+        boolean nova = pessoa.getId() == null;
+        if (nova) {
+            pessoa.setId(idAllocator.proximoId());
+        }
+
+        // A chave anterior só é solta depois de a linha ser gravada; se a
+        // gravação falhar, o registro volta ao que era
+        ShardKeyRegistry.Reserva reserva;
+        try {
+            reserva = chaves.reservar(pessoa);
+        } catch (PessoaDuplicadaException e) {
+            if (nova || !mantemChaveGravada(pessoa)) {
+                throw e;
+            }
+            // Duplicata gravada antes da regra: segue sem chave enquanto
+            // nome e data não mudam
+            reserva = ShardKeyRegistry.Reserva.nenhuma(pessoa.getId());
+        }
+        try {
+            JdbcTemplate shard = shardDe(pessoa.getId());
+            int linhas = nova ? 0 : shard.update(
+                    "UPDATE pessoas_table SET dt_nascimento = ?, nome = ?, ativo = ? WHERE id = ?",
+                    pessoa.getDt_nascimento(), pessoa.getNome(), pessoa.getAtivo(), pessoa.getId());
+            if (linhas == 0) {
+                inserir(shard, pessoa);
+            }
+        } catch (RuntimeException e) {
+            chaves.desfazer(reserva);
+            throw e;
+        }
+        chaves.confirmar(reserva);
+        return pessoa;
+    }
+
+    private boolean mantemChaveGravada(Pessoa pessoa) {
+        String chave = Pessoa.chaveDuplicidade(pessoa.getNome(), pessoa.getDt_nascimento());
+        return findById(pessoa.getId())
+                .map(atual -> Objects.equals(Pessoa.chaveDuplicidade(atual.getNome(), atual.getDt_nascimento()), chave))
+                .orElse(false);
+    }
+
+    @Override
+    public Optional<Pessoa> findById(Long id) {
+        Optional<Pessoa> pessoa = buscar(shardDe(id), id);
+        if (pessoa.isEmpty() && rebalanceando) {
+            // Durante o rebalanceamento o registro pode ainda estar no shard antigo
+            for (JdbcTemplate shard : shards) {
+                pessoa = buscar(shard, id);
+                if (pessoa.isPresent()) {
+                    break;
+                }
+            }
+        }
+        return pessoa;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        movimentacao.readLock().lock();
+        try {
+            remover(id);
+        } finally {
+            movimentacao.readLock().unlock();
+        }
+    }
+
+    private void remover(Long id) {
+        int linhas = shardDe(id).update("DELETE FROM pessoas_table WHERE id = ?", id);
+        if (linhas == 0 && rebalanceando) {
+            for (JdbcTemplate shard : shards) {
+                shard.update("DELETE FROM pessoas_table WHERE id = ?", id);
+            }
+        }
+        chaves.liberar(id);
+    }
+
+    @Override
+    public Page<Pessoa> findByAtivoTrue(Pageable pageable) {
+        List<Pessoa> conteudo = listarAtivos(List.of("id", "dt_nascimento", "nome", "ativo"), pageable);
+        return PageableExecutionUtils.getPage(conteudo, pageable, this::contarAtivos);
+    }
+
+    @Override
+    public Page<PessoaParcial> findAtivosComCampos(List<String> campos, Pageable pageable) {
+        // nome e id são sempre lidos: são a chave do merge entre os shards
+        Set<String> colunas = new LinkedHashSet<>(campos);
+        colunas.add("nome");
+        colunas.add("id");
+
+        List<Pessoa> linhas = listarAtivos(List.copyOf(colunas), pageable);
+        List<PessoaParcial> conteudo = new ArrayList<>(linhas.size());
+        for (Pessoa pessoa : linhas) {
+            conteudo.add(new PessoaParcial(
+                    campos.contains("id") ? pessoa.getId() : null,
+                    campos.contains("dt_nascimento") ? pessoa.getDt_nascimento() : null,
+                    campos.contains("nome") ? pessoa.getNome() : null,
+                    campos.contains("ativo") ? pessoa.getAtivo() : null));
+        }
+        return PageableExecutionUtils.getPage(conteudo, pageable, this::contarAtivos);
+    }
+
+    @Override
+    public void flush() {
+        // Cada escrita já é executada no shard em autocommit
+    }
+
+    @Override
+    public boolean existsByNomeAndNascimento(String nome, LocalDate dtNascimento) {
+        return chaves.existe(nome, dtNascimento);
+    }
+
+    @Override
+    public long preencherChavesDeDuplicidade() {
+        chaves.removerOrfas(shards);
+        return chaves.preencher(shards);
+    }
+
+    @Override
+    public void percorrerNomesENascimentos(BiConsumer<String, LocalDate> consumidor) {
+        for (JdbcTemplate shard : shards) {
+            shard.query("SELECT nome, dt_nascimento FROM pessoas_table", (RowCallbackHandler) rs ->
+                    consumidor.accept(rs.getString("nome"), rs.getObject("dt_nascimento", LocalDate.class)));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        consultas.shutdownNow();
+        pools.forEach(HikariDataSource::close);
+    }
+
+    List<JdbcTemplate> shards() {
+        return shards;
+    }
+
+    int shardIndexDe(long id) {
+        return ShardRouter.shardFor(id, shards.size());
+    }
+
+    void setRebalanceando(boolean rebalanceando) {
+        this.rebalanceando = rebalanceando;
+    }
+
+    /**
+     * Executa a movimentação de um lote sem escritas desta instância em
+     * andamento, para que nenhuma caia entre a leitura na origem e a
+     * remoção.
+     */
+    <T> T semEscritas(Supplier<T> movimentacaoLote) {
+        movimentacao.writeLock().lock();
+        try {
+            return movimentacaoLote.get();
+        } finally {
+            movimentacao.writeLock().unlock();
+        }
+    }
+
+    private JdbcTemplate shardDe(long id) {
+        return shards.get(shardIndexDe(id));
+    }
+
+    private Optional<Pessoa> buscar(JdbcTemplate shard, long id) {
+        return shard.query("SELECT " + COLUNAS + " FROM pessoas_table WHERE id = ?", PESSOA_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    private static void inserir(JdbcTemplate shard, Pessoa pessoa) {
+        shard.update("INSERT INTO pessoas_table (" + COLUNAS + ") VALUES (?, ?, ?, ?)",
+                pessoa.getId(), pessoa.getDt_nascimento(), pessoa.getNome(), pessoa.getAtivo());
+    }
+
+    /**
+     * Merge k-way dos shards. Cada shard devolve no máximo offset + tamanho
+     * linhas, lidas sob demanda; a linha de menor (nome, id) sai primeiro.
+     */
+    private List<Pessoa> listarAtivos(List<String> colunas, Pageable pageable) {
+        long limite = pageable.getOffset() + pageable.getPageSize();
+        String sql = "SELECT " + String.join(", ", colunas)
+                + " FROM pessoas_table WHERE ativo = TRUE ORDER BY nome, id LIMIT " + limite;
+        RowMapper<Pessoa> mapper = mapperParcial(colunas);
+
+        List<Future<Stream<Pessoa>>> abertas = new ArrayList<>(shards.size());
+        try {
+            for (JdbcTemplate shard : shards) {
+                abertas.add(submeter(() -> shard.queryForStream(sql, mapper)));
+            }
+
+            PriorityQueue<Cursor> cabecas = new PriorityQueue<>(shards.size(),
+                    Comparator.comparing(Cursor::atual, ORDEM_LISTAGEM));
+            for (Future<Stream<Pessoa>> aberta : abertas) {
+                Iterator<Pessoa> linhas = aguardar(aberta).iterator();
+                if (linhas.hasNext()) {
+                    cabecas.add(new Cursor(linhas.next(), linhas));
+                }
+            }
+
+            long pular = pageable.getOffset();
+            List<Pessoa> pagina = new ArrayList<>(pageable.getPageSize());
+            Long ultimoId = null;
+            while (!cabecas.isEmpty() && pagina.size() < pageable.getPageSize()) {
+                Cursor cursor = cabecas.poll();
+                Pessoa pessoa = cursor.atual();
+                if (cursor.resto().hasNext()) {
+                    cabecas.add(new Cursor(cursor.resto().next(), cursor.resto()));
+                }
+                // Cópia transitória de um registro em movimento entre shards
+                if (pessoa.getId().equals(ultimoId)) {
+                    continue;
+                }
+                ultimoId = pessoa.getId();
+                if (pular > 0) {
+                    pular--;
+                    continue;
+                }
+                pagina.add(pessoa);
+            }
+            return pagina;
+        } finally {
+            // Fecha todos os streams (e devolve as conexões), inclusive os que
+            // ainda estavam abrindo quando outro shard falhou
+            for (Future<Stream<Pessoa>> aberta : abertas) {
+                try {
+                    aberta.get().close();
+                } catch (Exception e) {
+                    logger.debug("Consulta de shard sem stream para fechar: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private long contarAtivos() {
+        List<Future<Long>> contagens = new ArrayList<>(shards.size());
+        for (JdbcTemplate shard : shards) {
+            contagens.add(submeter(() ->
+                    shard.queryForObject("SELECT COUNT(*) FROM pessoas_table WHERE ativo = TRUE", Long.class)));
+        }
+        long total = 0;
+        for (Future<Long> contagem : contagens) {
+            total += aguardar(contagem);
+        }
+        return total;
+    }
+
+    private long maiorId() {
+        long maior = 0;
+        for (JdbcTemplate shard : shards) {
+            Long id = shard.queryForObject("SELECT MAX(id) FROM pessoas_table", Long.class);
+            if (id != null) {
+                maior = Math.max(maior, id);
+            }
+        }
+        return maior;
+    }
+
+    private static RowMapper<Pessoa> mapperParcial(List<String> colunas) {
+        if (colunas.size() == 4) {
+            return PESSOA_MAPPER;
+        }
+        boolean dtNascimento = colunas.contains("dt_nascimento");
+        boolean ativo = colunas.contains("ativo");
+        return (rs, rowNum) -> new Pessoa(
+                rs.getLong("id"),
+                dtNascimento ? rs.getObject("dt_nascimento", LocalDate.class) : null,
+                rs.getString("nome"),
+                ativo && rs.getBoolean("ativo"));
+    }
+
+    /**
+     * Executa a tarefa no pool de consultas levando junto os atributos da
+     * requisição, para que as métricas de conexão saibam o endpoint, e o
+     * prazo da requisição, para o timeout dos statements.
+     */
+    private <T> Future<T> submeter(Callable<T> tarefa) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        Deadline deadline = Deadline.atual();
+        return consultas.submit(() -> {
+            RequestContextHolder.setRequestAttributes(atributos);
+            Deadline.definir(deadline);
+            try {
+                return tarefa.call();
+            } finally {
+                Deadline.limpar();
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+    }
+
+    /**
+     * Aguarda o resultado respeitando o prazo da requisição. A consulta não é
+     * interrompida aqui: o query timeout do statement a cancela no banco, e
+     * o resultado ainda precisa ser recebido para devolver a conexão.
+     */
+    private static <T> T aguardar(Future<T> futuro) {
+        Deadline deadline = Deadline.atual();
+        try {
+            if (deadline == null) {
+                return futuro.get();
+            }
+            return futuro.get(Math.max(0, deadline.restanteMs()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException(deadline.getOperacao());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta aos shards interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Falha ao consultar shard", e.getCause());
+        }
+    }
+
+    private record Cursor(Pessoa atual, Iterator<Pessoa> resto) {
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker do acesso ao banco.
+ *
+ * Depois de N falhas consecutivas (timeouts ou falhas de conexão) o circuito
+ * abre e as requisições são recusadas com 503 sem ocupar threads nem
+ * conexões. Passado o tempo de abertura, uma única requisição de teste é
+ * admitida: se der certo o circuito fecha, se falhar volta a abrir.
+ */
+@Component
+public class DatabaseCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    public enum Estado {
+        FECHADO,
+        ABERTO,
+        MEIO_ABERTO
+    }
+
+    private final int limiteFalhas;
+    private final long aberturaMs;
+    private final LongSupplier relogio;
+    private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.FECHADO);
+    private final AtomicInteger falhasConsecutivas = new AtomicInteger();
+    private final AtomicBoolean tentativaEmAndamento = new AtomicBoolean();
+    private final Counter rejeicoes;
+    private final Counter aberturas;
+    private volatile long abertoAte;
+
+    @Autowired
+    public DatabaseCircuitBreaker(
+            @Value("${pessoa-api.circuit-breaker.failure-threshold:5}") int limiteFalhas,
+            @Value("${pessoa-api.circuit-breaker.open-duration-ms:10000}") long aberturaMs,
+            MeterRegistry meterRegistry) {
+        this(limiteFalhas, aberturaMs, meterRegistry, System::currentTimeMillis);
+    }
+
+    /**
+     * Construtor com relógio (em milissegundos) substituível, para testes.
+     */
+    DatabaseCircuitBreaker(int limiteFalhas, long aberturaMs, MeterRegistry meterRegistry, LongSupplier relogio) {
+        this.limiteFalhas = limiteFalhas;
+        this.aberturaMs = aberturaMs;
+        this.relogio = relogio;
+
+        Gauge.builder("pessoa.db.circuito.estado", estado, e -> e.get().ordinal())
+                .description("Estado do circuit breaker do banco (0 fechado, 1 aberto, 2 meio-aberto)")
+                .register(meterRegistry);
+        this.rejeicoes = Counter.builder("pessoa.db.circuito.rejeicoes")
+                .description("Requisições recusadas com o circuito aberto")
+                .register(meterRegistry);
+        this.aberturas = Counter.builder("pessoa.db.circuito.aberturas")
+                .description("Vezes em que o circuito abriu")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica se a requisição pode seguir para o banco.
+     */
+    public boolean permitir() {
+        Estado atual = estado.get();
+        if (atual == Estado.FECHADO) {
+            return true;
+        }
+        if (atual == Estado.ABERTO) {
+            if (relogio.getAsLong() < abertoAte) {
+                rejeicoes.increment();
+                return false;
+            }
+            if (estado.compareAndSet(Estado.ABERTO, Estado.MEIO_ABERTO)) {
+                logger.info("Circuit breaker do banco meio-aberto: testando com uma requisição");
+            }
+        }
+        if (tentativaEmAndamento.compareAndSet(false, true)) {
+            return true;
+        }
+        rejeicoes.increment();
+        return false;
+    }
+
+    public void registrarSucesso() {
+        Estado atual = estado.get();
+        if (atual == Estado.FECHADO) {
+            falhasConsecutivas.set(0);
+        } else if (atual == Estado.MEIO_ABERTO && estado.compareAndSet(Estado.MEIO_ABERTO, Estado.FECHADO)) {
+            falhasConsecutivas.set(0);
+            tentativaEmAndamento.set(false);
+            logger.info("Circuit breaker do banco fechado");
+        }
+    }
+
+    public void registrarFalha() {
+        if (estado.get() == Estado.MEIO_ABERTO || falhasConsecutivas.incrementAndGet() >= limiteFalhas) {
+            abrir();
+        }
+    }
+
+    /**
+     * Libera a vaga de teste quando a requisição admitida no estado
+     * meio-aberto terminou sem indicar nada sobre a saúde do banco.
+     */
+    public void liberarTentativa() {
+        if (estado.get() == Estado.MEIO_ABERTO) {
+            tentativaEmAndamento.set(false);
+        }
+    }
+
+    public Estado getEstado() {
+        return estado.get();
+    }
+
+    private void abrir() {
+        abertoAte = relogio.getAsLong() + aberturaMs;
+        tentativaEmAndamento.set(false);
+        if (estado.getAndSet(Estado.ABERTO) != Estado.ABERTO) {
+            aberturas.increment();
+            logger.warn("Circuit breaker do banco aberto por {}ms após {} falha(s)",
+                    aberturaMs, falhasConsecutivas.get());
+        }
+    }
+}
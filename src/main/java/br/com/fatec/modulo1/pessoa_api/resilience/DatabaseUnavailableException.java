@@ -0,0 +1,11 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+/**
+ * Circuit breaker aberto: a requisição é recusada sem ir ao banco - 503.
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+
+    public DatabaseUnavailableException() {
+        super("Banco de dados indisponível no momento. Tente novamente em instantes.", null, false, false);
+    }
+}
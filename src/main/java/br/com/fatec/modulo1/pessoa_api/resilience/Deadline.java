@@ -0,0 +1,75 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prazo da operação em andamento, definido por requisição pelo
+ * DeadlineInterceptor e propagado para os timeouts de transação e de
+ * statement JDBC.
+ */
+public final class Deadline {
+    private static final ThreadLocal<Deadline> ATUAL = new ThreadLocal<>();
+
+    private final String operacao;
+    private final long expiraEmNanos;
+    // Marcado pelas threads que executam a operação no banco (ex.: consultas
+    // paralelas nos shards), lido pelo DeadlineInterceptor no fim da requisição
+    private volatile boolean acessouBanco;
+
+    public Deadline(String operacao, long orcamentoMs) {
+        this.operacao = operacao;
+        this.expiraEmNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(orcamentoMs);
+    }
+
+    public static Deadline atual() {
+        return ATUAL.get();
+    }
+
+    public static void definir(Deadline deadline) {
+        if (deadline == null) {
+            ATUAL.remove();
+        } else {
+            ATUAL.set(deadline);
+        }
+    }
+
+    public static void limpar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Chamado pelo DeadlineTransactionManager e pelo DeadlineJdbcTemplate
+     * quando a requisição chega de fato ao banco.
+     */
+    public void registrarAcessoAoBanco() {
+        this.acessouBanco = true;
+    }
+
+    public boolean acessouBanco() {
+        return acessouBanco;
+    }
+
+    public String getOperacao() {
+        return operacao;
+    }
+
+    public long restanteMs() {
+        return TimeUnit.NANOSECONDS.toMillis(expiraEmNanos - System.nanoTime());
+    }
+
+    public boolean expirado() {
+        return expiraEmNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Tempo restante em segundos, arredondado para cima: é a granularidade
+     * dos timeouts de transação e de Statement.setQueryTimeout.
+     */
+    public int restanteSegundos() {
+        long ms = restanteMs();
+        if (ms <= 0) {
+            throw new DeadlineExceededException(operacao);
+        }
+        return (int) Math.max(1, (ms + 999) / 1000);
+    }
+}
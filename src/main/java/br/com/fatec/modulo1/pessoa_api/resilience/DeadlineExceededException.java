@@ -0,0 +1,17 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+/**
+ * O prazo da operação terminou antes ou durante o acesso ao banco - 504.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private final String operacao;
+
+    public DeadlineExceededException(String operacao) {
+        super("Tempo limite da operação " + operacao + " excedido", null, false, false);
+        this.operacao = operacao;
+    }
+
+    public String getOperacao() {
+        return operacao;
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Define o prazo de cada requisição da API e consulta o circuit breaker.
+ *
+ * O orçamento vem de pessoa-api.timeouts.operations.&lt;metodo do controller&gt;
+ * (ou pessoa-api.timeouts.default-ms) e pode ser reduzido pelo cliente com o
+ * cabeçalho X-Request-Timeout-Ms. O resultado da requisição alimenta o
+ * circuit breaker: o GlobalExceptionHandler marca as falhas de banco no
+ * atributo ATRIBUTO_FALHA_BANCO com o tipo da falha (timeout ou conexao). Só
+ * conta como sucesso a requisição que acessou o banco (Deadline#acessouBanco);
+ * um 400 de validação, por exemplo, não diz nada sobre a saúde do banco.
+ */
+@Component
+public class DeadlineInterceptor implements HandlerInterceptor {
+    public static final String ATRIBUTO_FALHA_BANCO = DeadlineInterceptor.class.getName() + ".falhaBanco";
+    public static final String FALHA_TIMEOUT = "timeout";
+    public static final String FALHA_CONEXAO = "conexao";
+
+    static final String HEADER_TIMEOUT = "X-Request-Timeout-Ms";
+
+    private final Environment environment;
+    private final DatabaseCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final long orcamentoPadraoMs;
+
+    public DeadlineInterceptor(Environment environment, DatabaseCircuitBreaker circuitBreaker,
+                               MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.orcamentoPadraoMs = environment.getProperty("pessoa-api.timeouts.default-ms", Long.class, 3000L);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        String operacao = handlerMethod.getMethod().getName();
+        long orcamento = environment.getProperty(
+                "pessoa-api.timeouts.operations." + operacao, Long.class, orcamentoPadraoMs);
+
+        String pedidoPeloCliente = request.getHeader(HEADER_TIMEOUT);
+        if (pedidoPeloCliente != null) {
+            try {
+                orcamento = Math.min(orcamento, Math.max(1, Long.parseLong(pedidoPeloCliente.trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Cabeçalho " + HEADER_TIMEOUT + " deve ser um número de milissegundos");
+            }
+        }
+
+        if (!circuitBreaker.permitir()) {
+            throw new DatabaseUnavailableException();
+        }
+
+        Deadline.definir(new Deadline(operacao, orcamento));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        Deadline deadline = Deadline.atual();
+        Deadline.limpar();
+
+        Object falha = request.getAttribute(ATRIBUTO_FALHA_BANCO);
+        if (falha != null) {
+            Counter.builder("pessoa.db.falhas")
+                    .description("Timeouts e falhas de conexão no acesso ao banco")
+                    .tag("operacao", handlerMethod.getMethod().getName())
+                    .tag("tipo", falha.toString())
+                    .register(meterRegistry)
+                    .increment();
+            circuitBreaker.registrarFalha();
+        } else if (response.getStatus() < 500 && deadline != null && deadline.acessouBanco()) {
+            circuitBreaker.registrarSucesso();
+        } else {
+            circuitBreaker.liberarTentativa();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * JdbcTemplate que limita cada statement ao tempo restante do prazo da
+ * requisição, para os backends que acessam o banco sem transação JPA, e
+ * marca no prazo que a requisição acessou o banco.
+ */
+public class DeadlineJdbcTemplate extends JdbcTemplate {
+
+    public DeadlineJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        Deadline deadline = Deadline.atual();
+        if (deadline != null) {
+            deadline.registrarAcessoAoBanco();
+            int restante = deadline.restanteSegundos();
+            if (stmt.getQueryTimeout() == 0 || restante < stmt.getQueryTimeout()) {
+                stmt.setQueryTimeout(restante);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DelegatingTransactionDefinition;
+
+/**
+ * Aplica o prazo da requisição como timeout das transações que não definem
+ * um timeout próprio. O Hibernate repassa o tempo restante da transação para
+ * Statement.setQueryTimeout, e o driver cancela a consulta quando ele acaba.
+ * Uma transação aberta marca no prazo que a requisição acessou o banco.
+ */
+public class DeadlineTransactionManager implements PlatformTransactionManager {
+    private final PlatformTransactionManager delegate;
+
+    public DeadlineTransactionManager(PlatformTransactionManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) throws TransactionException {
+        Deadline deadline = Deadline.atual();
+        if (deadline == null) {
+            return delegate.getTransaction(definition);
+        }
+        TransactionStatus status = delegate.getTransaction(comPrazo(definition, deadline));
+        deadline.registrarAcessoAoBanco();
+        return status;
+    }
+
+    private static TransactionDefinition comPrazo(TransactionDefinition definition, Deadline deadline) {
+        TransactionDefinition base = definition != null ? definition : TransactionDefinition.withDefaults();
+        if (base.getTimeout() != TransactionDefinition.TIMEOUT_DEFAULT) {
+            return definition;
+        }
+        int timeout = deadline.restanteSegundos();
+        return new DelegatingTransactionDefinition(base) {
+            @Override
+            public int getTimeout() {
+                return timeout;
+            }
+        };
+    }
+
+    @Override
+    public void commit(TransactionStatus status) throws TransactionException {
+        delegate.commit(status);
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) throws TransactionException {
+        delegate.rollback(status);
+    }
+
+    public PlatformTransactionManager getDelegate() {
+        return delegate;
+    }
+}
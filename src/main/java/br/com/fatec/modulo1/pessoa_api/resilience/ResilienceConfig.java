@@ -0,0 +1,39 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ResilienceConfig implements WebMvcConfigurer {
+    private final DeadlineInterceptor deadlineInterceptor;
+
+    public ResilienceConfig(DeadlineInterceptor deadlineInterceptor) {
+        this.deadlineInterceptor = deadlineInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // O feed SSE não acessa o banco e é de longa duração
+        registry.addInterceptor(deadlineInterceptor)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/eventos", "/api/eventos/**");
+    }
+
+    @Bean
+    static BeanPostProcessor deadlineTransactionManagerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof PlatformTransactionManager transactionManager
+                        && !(bean instanceof DeadlineTransactionManager)) {
+                    return new DeadlineTransactionManager(transactionManager);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,33 +1,51 @@
 package br.com.fatec.modulo1.pessoa_api.services;
 
+import br.com.fatec.modulo1.pessoa_api.dto.PessoaParcial;
+import br.com.fatec.modulo1.pessoa_api.duplicates.DuplicatePessoaDetector;
+import br.com.fatec.modulo1.pessoa_api.events.PessoaChangedEvent;
+import br.com.fatec.modulo1.pessoa_api.events.PessoaEventType;
+import br.com.fatec.modulo1.pessoa_api.exceptions.ErrorMessages;
 import br.com.fatec.modulo1.pessoa_api.exceptions.ValidationException;
 import br.com.fatec.modulo1.pessoa_api.exceptions.ResourceNotFoundException;
 import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
-import br.com.fatec.modulo1.pessoa_api.repository.PessoaRepository;
-import jakarta.transaction.Transactional;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaDuplicadaException;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaProjectionRepository;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaStore;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
 public class PessoaService {
-    public final PessoaRepository pessoaRepository;
-
-    public PessoaService(PessoaRepository pessoaRepository) {
-        this.pessoaRepository = pessoaRepository;
+    public final PessoaStore pessoaStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DuplicatePessoaDetector duplicateDetector;
+
+    public PessoaService(PessoaStore pessoaStore, ApplicationEventPublisher eventPublisher,
+                         DuplicatePessoaDetector duplicateDetector) {
+        this.pessoaStore = pessoaStore;
+        this.eventPublisher = eventPublisher;
+        this.duplicateDetector = duplicateDetector;
     }
 
     private static final Logger logger = LoggerFactory.getLogger(PessoaService.class);
 
     private static final int PAGE_SIZE = 10;
 
+    @Transactional(readOnly = true)
     public Page<Pessoa> listar(int pagina) {
         MDC.put("operation", "listarPessoas");
         MDC.put("pagina", String.valueOf(pagina));
@@ -35,19 +53,10 @@ public class PessoaService {
         try {
             logger.info("Listando pessoas ativas - página {}", pagina);
 
-            // Validação de entrada
-            if (pagina < 0) {
-                logger.warn("Número de página inválido: {}", pagina);
-                pagina = 0;
-            }
-            PageRequest paginacao = PageRequest.of(
-                    pagina,
-                    PAGE_SIZE,
-                    Sort.by("nome").ascending()
-            );
+            PageRequest paginacao = paginacao(pagina);
 
             long startTime = System.currentTimeMillis();
-            Page<Pessoa> resultado = pessoaRepository.findByAtivoTrue(paginacao);
+            Page<Pessoa> resultado = pessoaStore.findByAtivoTrue(paginacao);
             long duration = System.currentTimeMillis() - startTime;
 
             MDC.put("totalElements", String.valueOf(resultado.getTotalElements()));
@@ -77,6 +86,79 @@ public class PessoaService {
         }
     }
 
+    /**
+     * Lista pessoas ativas selecionando apenas os campos pedidos (ex.: "id,nome").
+     */
+    @Transactional(readOnly = true)
+    public Page<PessoaParcial> listarCampos(int pagina, String campos) {
+        MDC.put("operation", "listarPessoasCampos");
+        MDC.put("pagina", String.valueOf(pagina));
+
+        try {
+            List<String> selecionados = validarCampos(campos);
+
+            logger.info("Listando pessoas ativas - página {} - campos {}", pagina, selecionados);
+
+            long startTime = System.currentTimeMillis();
+            Page<PessoaParcial> resultado = pessoaStore.findAtivosComCampos(selecionados, paginacao(pagina));
+            long duration = System.currentTimeMillis() - startTime;
+
+            MDC.put("totalElements", String.valueOf(resultado.getTotalElements()));
+            MDC.put("totalPages", String.valueOf(resultado.getTotalPages()));
+            MDC.put("queryDuration", String.valueOf(duration));
+
+            logger.info("Listagem concluída: {} pessoas encontradas em {} páginas ({}ms)",
+                    resultado.getTotalElements(),
+                    resultado.getTotalPages(),
+                    duration);
+
+            if (duration > 500) {
+                logger.warn("Consulta lenta detectada ao listar pessoas");
+            }
+
+            return resultado;
+        } finally {
+            MDC.remove("operation");
+            MDC.remove("pagina");
+            MDC.remove("totalElements");
+            MDC.remove("totalPages");
+            MDC.remove("queryDuration");
+        }
+    }
+
+    private PageRequest paginacao(int pagina) {
+        // Validação de entrada
+        if (pagina < 0) {
+            logger.warn("Número de página inválido: {}", pagina);
+            pagina = 0;
+        }
+        return PageRequest.of(
+                pagina,
+                PAGE_SIZE,
+                Sort.by("nome").ascending().and(Sort.by("id"))
+        );
+    }
+
+    private List<String> validarCampos(String campos) {
+        List<String> selecionados = new ArrayList<>();
+        for (String campo : campos.split(",")) {
+            String nome = campo.trim();
+            if (nome.isEmpty() || selecionados.contains(nome)) {
+                continue;
+            }
+            if (!PessoaProjectionRepository.CAMPOS_DISPONIVEIS.contains(nome)) {
+                logger.warn("Campo desconhecido solicitado na listagem: {}", nome);
+                throw new ValidationException("campos", nome,
+                        "Campo inválido. Campos disponíveis: id, nome, dt_nascimento, ativo");
+            }
+            selecionados.add(nome);
+        }
+        if (selecionados.isEmpty()) {
+            throw new ValidationException("campos", campos, ErrorMessages.CAMPOS_VAZIOS);
+        }
+        return selecionados;
+    }
+
     @Transactional
     public Pessoa salvar(Pessoa pessoa) {
         MDC.put("operation", "salvarPessoa");
@@ -84,23 +166,37 @@ public class PessoaService {
         try {
             if (pessoa == null) {
                 logger.error("Tentativa de salvar pessoa nula");
-                throw new ValidationException("Pessoa não pode ser nula");
+                throw new ValidationException(ErrorMessages.PESSOA_NULA);
             }
 
             if (pessoa.getNome().isEmpty()) {
                 logger.error("Tentativa de salver pessoa sem nome");
-                throw new ValidationException("O campo nome não estar vazio");
+                throw new ValidationException(ErrorMessages.NOME_VAZIO);
             }
 
             if (pessoa.getId() != null) {
                 logger.warn("Tentativa de salvar pessoa com ID já definido: {}", pessoa.getId());
-                throw new ValidationException("Nova pessoa não deve ter ID");
+                throw new ValidationException(ErrorMessages.NOVA_PESSOA_COM_ID);
+            }
+
+            if (duplicateDetector.existeDuplicada(pessoa.getNome(), pessoa.getDt_nascimento())) {
+                throw pessoaDuplicada(pessoa);
             }
 
             logger.info("Salvando nova pessoa: {}", pessoa.getNome());
 
             long startTime = System.currentTimeMillis();
-            Pessoa pessoaSalva = pessoaRepository.save(pessoa);
+            Pessoa pessoaSalva;
+            try {
+                // A consulta acima não vê criações simultâneas; a restrição única vê
+                pessoaSalva = pessoaStore.save(pessoa);
+                pessoaStore.flush();
+            } catch (DataIntegrityViolationException e) {
+                if (!violouChaveDeDuplicidade(e)) {
+                    throw e;
+                }
+                throw pessoaDuplicada(pessoa);
+            }
             long duration = System.currentTimeMillis() - startTime;
 
             MDC.put("pessoaId", String.valueOf(pessoaSalva.getId()));
@@ -111,6 +207,8 @@ public class PessoaService {
                     pessoaSalva.getNome(),
                     duration);
 
+            eventPublisher.publishEvent(new PessoaChangedEvent(PessoaEventType.CRIADA, pessoaSalva.getId(), pessoaSalva));
+
             return pessoaSalva;
         } finally {
             MDC.remove("operation");
@@ -129,15 +227,17 @@ public class PessoaService {
 
             if (id == null || id <= 0) {
                 logger.warn("ID inválido fornecido para deleção: {}", id);
-                throw new ValidationException("id", id, "ID deve ser um número positivo");
+                throw new ValidationException("id", id, ErrorMessages.ID_INVALIDO);
             }
 
-            Pessoa pessoa = pessoaRepository.findById(id)
+            Pessoa pessoa = pessoaStore.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Pessoa", id));
 
             MDC.put("pessoaNome", pessoa.getNome());
 
-            pessoaRepository.deleteById(pessoa.getId());
+            pessoaStore.deleteById(pessoa.getId());
+
+            eventPublisher.publishEvent(new PessoaChangedEvent(PessoaEventType.REMOVIDA, id, null));
 
             logger.info("Pessoa deletada com sucesso: ID={}, nome={}", id, pessoa.getNome());
 
@@ -155,33 +255,43 @@ public class PessoaService {
         try {
             if (pessoa == null) {
                 logger.error("Tentativa de atualizar pessoa nula");
-                throw new ValidationException("Pessoa não pode ser nula");
+                throw new ValidationException(ErrorMessages.PESSOA_NULA);
             }
 
             if (pessoa.getId() == null) {
                 logger.error("Tentativa de atualizar pessoa sem ID");
-                throw new ValidationException("ID da pessoa é obrigatório para atualização");
+                throw new ValidationException(ErrorMessages.ID_OBRIGATORIO);
             }
 
             MDC.put("pessoaId", String.valueOf(pessoa.getId()));
 
             logger.info("Tentando atualizar pessoa: ID={}", pessoa.getId());
 
-            Pessoa pessoaExistente = pessoaRepository.findById(pessoa.getId())
+            Pessoa pessoaExistente = pessoaStore.findById(pessoa.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Pessoa", pessoa.getId()));
 
             long startTime = System.currentTimeMillis();
-            pessoaRepository.save(pessoa);
+            Pessoa pessoaAtualizada;
+            try {
+                pessoaStore.save(pessoa);
+                pessoaAtualizada = pessoaStore.save(pessoa);
+                pessoaStore.flush();
+            } catch (DataIntegrityViolationException e) {
+                if (!violouChaveDeDuplicidade(e)) {
+                    throw e;
+                }
+                throw pessoaDuplicada(pessoa);
+            }
             long duration = System.currentTimeMillis() - startTime;
 
-            Pessoa pessoaAtualizada = pessoaRepository.save(pessoa);
-
             logger.info("Pessoa atualizada com sucesso: ID={}, nome='{}' -> '{}' ({}ms)",
                     pessoa.getId(),
                     pessoaExistente.getNome(),
                     pessoa.getNome(),
                     duration);
 
+            eventPublisher.publishEvent(new PessoaChangedEvent(PessoaEventType.ATUALIZADA, pessoaAtualizada.getId(), pessoaAtualizada));
+
             return pessoaAtualizada;
         } finally {
             MDC.remove("operation");
@@ -190,4 +300,28 @@ public class PessoaService {
             MDC.remove("pessoaNomeNovo");
         }
     }
+
+    /**
+     * Só a regra de duplicidade vira erro de validação. As demais violações
+     * (ex.: nome maior que a coluna) seguem para o handler de erro interno,
+     * que registra a causa.
+     */
+    private static boolean violouChaveDeDuplicidade(DataIntegrityViolationException e) {
+        if (e instanceof PessoaDuplicadaException) {
+            return true;
+        }
+        for (Throwable causa = e.getCause(); causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao) {
+                String restricao = violacao.getConstraintName();
+                return restricao != null
+                        && restricao.toLowerCase(Locale.ROOT).contains(Pessoa.UK_NOME_NASCIMENTO);
+            }
+        }
+        return false;
+    }
+
+    private ValidationException pessoaDuplicada(Pessoa pessoa) {
+        logger.warn("Tentativa de cadastrar pessoa duplicada: {}", pessoa.getNome());
+        return new ValidationException("nome", pessoa.getNome(), ErrorMessages.PESSOA_DUPLICADA);
+    }
 }
@@ -0,0 +1,247 @@
+package br.com.fatec.modulo1.pessoa_api.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aquece a aplicação antes de ela receber tráfego.
+ *
+ * Roda como ApplicationRunner: o servidor HTTP já está no ar, mas o estado de
+ * readiness só passa a ACCEPTING_TRAFFIC depois que todos os runners
+ * terminam. Abre as conexões do pool e envia requisições sintéticas (sem
+ * escrita no banco) pelo caminho real: filtro, controller, service,
+ * Hibernate, Jackson e o handler de erros.
+ */
+@Component
+@ConditionalOnProperty(name = "pessoa-api.warmup.enabled", havingValue = "true")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    static final String HEADER_WARMUP = "X-Warmup";
+
+    private final ApplicationContext context;
+    private final ObjectProvider<DataSource> dataSource;
+    private final MeterRegistry meterRegistry;
+    private final String contextPath;
+    private final int iteracoes;
+    private final int threads;
+    private final long duracaoMaximaMs;
+    private final int conexoesPool;
+    private final AtomicLong duracaoMs = new AtomicLong();
+
+    public WarmupRunner(
+            ApplicationContext context,
+            ObjectProvider<DataSource> dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${server.servlet.context-path:}") String contextPath,
+            @Value("${pessoa-api.warmup.iterations:300}") int iteracoes,
+            @Value("${pessoa-api.warmup.threads:4}") int threads,
+            @Value("${pessoa-api.warmup.max-duration-ms:60000}") long duracaoMaximaMs,
+            @Value("${pessoa-api.warmup.pool-connections:0}") int conexoesPool) {
+        this.context = context;
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.contextPath = contextPath;
+        this.iteracoes = iteracoes;
+        this.threads = threads;
+        this.duracaoMaximaMs = duracaoMaximaMs;
+        this.conexoesPool = conexoesPool;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!(context instanceof WebServerApplicationContext webContext) || webContext.getWebServer() == null) {
+            logger.info("Warm-up ignorado: aplicação sem servidor web");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        long prazo = inicio + TimeUnit.MILLISECONDS.toNanos(duracaoMaximaMs);
+        logger.info("Iniciando warm-up: {} iterações em {} threads", iteracoes, threads);
+
+        int conexoes = preencherPool();
+
+        String base = "http://127.0.0.1:" + webContext.getWebServer().getPort() + contextPath;
+        List<Requisicao> requisicoes = requisicoesSinteticas(base);
+
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build()) {
+            long inicial = rodada(client, requisicoes, "inicial");
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                int porThread = Math.max(1, iteracoes / threads);
+                for (int t = 0; t < threads; t++) {
+                    executor.execute(() -> {
+                        for (int i = 0; i < porThread && System.nanoTime() < prazo; i++) {
+                            rodada(client, requisicoes, null);
+                        }
+                    });
+                }
+            } finally {
+                executor.shutdown();
+                if (!executor.awaitTermination(Math.max(1, prazo - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    logger.warn("Warm-up atingiu o tempo máximo de {}ms", duracaoMaximaMs);
+                    executor.shutdownNow();
+                }
+            }
+
+            long aquecida = rodada(client, requisicoes, "final");
+
+            duracaoMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            TimeGauge.builder("pessoa.warmup.duracao", duracaoMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                    .description("Duração do warm-up antes de aceitar tráfego")
+                    .register(meterRegistry);
+
+            logger.info("Warm-up concluído em {}ms ({} conexões abertas): rodada de {} requisições levou {}µs a frio e {}µs aquecida",
+                    duracaoMs.get(),
+                    conexoes,
+                    requisicoes.size(),
+                    TimeUnit.NANOSECONDS.toMicros(inicial),
+                    TimeUnit.NANOSECONDS.toMicros(aquecida));
+        }
+    }
+
+    /**
+     * Abre as conexões do pool de uma vez, para que as primeiras requisições
+     * reais não paguem o handshake com o banco.
+     */
+    private int preencherPool() {
+        DataSource ds = dataSource.getIfAvailable();
+        if (ds == null) {
+            return 0;
+        }
+
+        int quantidade = conexoesPool;
+        if (quantidade <= 0) {
+            try {
+                quantidade = ds.isWrapperFor(HikariDataSource.class)
+                        ? ds.unwrap(HikariDataSource.class).getMinimumIdle()
+                        : 1;
+            } catch (SQLException e) {
+                quantidade = 1;
+            }
+        }
+
+        List<Connection> abertas = new ArrayList<>(quantidade);
+        try {
+            for (int i = 0; i < quantidade; i++) {
+                Connection connection = ds.getConnection();
+                abertas.add(connection);
+                connection.isValid(2);
+            }
+        } catch (SQLException e) {
+            logger.warn("Não foi possível preencher o pool de conexões: {}", e.getMessage());
+        } finally {
+            for (Connection connection : abertas) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.debug("Falha ao devolver conexão do warm-up: {}", e.getMessage());
+                }
+            }
+        }
+        return abertas.size();
+    }
+
+    /**
+     * Executa cada requisição uma vez e retorna o tempo total da rodada.
+     * Quando fase não é nula, a latência de cada requisição vira métrica.
+     */
+    private long rodada(HttpClient client, List<Requisicao> requisicoes, String fase) {
+        long total = 0;
+        for (Requisicao requisicao : requisicoes) {
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<Void> resposta = client.send(requisicao.request(), HttpResponse.BodyHandlers.discarding());
+                if (resposta.statusCode() >= 500) {
+                    logger.warn("Warm-up: {} respondeu {}", requisicao.nome(), resposta.statusCode());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            } catch (Exception e) {
+                logger.warn("Warm-up: falha em {}: {}", requisicao.nome(), e.getMessage());
+            }
+            long latencia = System.nanoTime() - inicio;
+            total += latencia;
+
+            if (fase != null) {
+                Timer.builder("pessoa.warmup.latencia")
+                        .description("Latência das requisições sintéticas antes e depois do warm-up")
+                        .tag("fase", fase)
+                        .tag("requisicao", requisicao.nome())
+                        .register(meterRegistry)
+                        .record(latencia, TimeUnit.NANOSECONDS);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Requisições que percorrem os caminhos quentes sem alterar dados: as
+     * escritas são recusadas pela validação ou não encontram o registro.
+     */
+    private static List<Requisicao> requisicoesSinteticas(String base) {
+        String pessoaComId = "{\"id\":1,\"nome\":\"warmup\",\"dt_nascimento\":\"01/01/2000\",\"ativo\":true}";
+        String pessoaSemId = "{\"nome\":\"warmup\",\"dt_nascimento\":\"01/01/2000\",\"ativo\":true}";
+        return List.of(
+                new Requisicao("listar", get(base + "/api?pagina=0")),
+                new Requisicao("listar-campos", get(base + "/api?pagina=0&campos=id,nome")),
+                new Requisicao("pagina-invalida", get(base + "/api?pagina=x")),
+                new Requisicao("criar-com-id", json(base + "/api", "POST", pessoaComId)),
+                new Requisicao("json-malformado", json(base + "/api", "POST", "{\"nome\":")),
+                new Requisicao("atualizar-inexistente", json(base + "/api/0", "PUT", pessoaSemId)),
+                new Requisicao("deletar-id-invalido", HttpRequest.newBuilder(URI.create(base + "/api/0"))
+                        .header(HEADER_WARMUP, "true")
+                        .DELETE()
+                        .build()));
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header(HEADER_WARMUP, "true")
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest json(String url, String metodo, String corpo) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header(HEADER_WARMUP, "true")
+                .header("Content-Type", "application/json")
+                .method(metodo, HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private record Requisicao(String nome, HttpRequest request) {
+    }
+}
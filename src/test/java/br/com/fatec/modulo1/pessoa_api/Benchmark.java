@@ -0,0 +1,49 @@
+package br.com.fatec.modulo1.pessoa_api;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Medição simples usada pelos testes de benchmark (opt-in com -Dbenchmark=true).
+ * Cada operação roda uma vez para aquecimento e outra medida, e o resultado
+ * traz tempo e bytes alocados por operação na thread atual.
+ */
+public final class Benchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Impede que o JIT descarte o resultado das operações
+    private static volatile Object consumido;
+
+    private Benchmark() {
+    }
+
+    public static Resultado medir(String nome, int iteracoes, Operacao operacao) throws Exception {
+        executar(iteracoes, operacao);
+
+        long alocadoAntes = THREADS.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        executar(iteracoes, operacao);
+        long nsPorOperacao = (System.nanoTime() - inicio) / iteracoes;
+        long bytesPorOperacao = (THREADS.getCurrentThreadAllocatedBytes() - alocadoAntes) / iteracoes;
+
+        Resultado resultado = new Resultado(nome, nsPorOperacao, bytesPorOperacao);
+        System.out.printf("%-26s %10d ns/op %10d bytes/op%n", nome, nsPorOperacao, bytesPorOperacao);
+        return resultado;
+    }
+
+    private static void executar(int iteracoes, Operacao operacao) throws Exception {
+        Object resultado = null;
+        for (int i = 0; i < iteracoes; i++) {
+            resultado = operacao.executar(i);
+        }
+        consumido = resultado;
+    }
+
+    @FunctionalInterface
+    public interface Operacao {
+        Object executar(int iteracao) throws Exception;
+    }
+
+    public record Resultado(String nome, long nsPorOperacao, long bytesPorOperacao) {
+    }
+}
@@ -0,0 +1,223 @@
+package br.com.fatec.modulo1.pessoa_api.events;
+
+import br.com.fatec.modulo1.pessoa_api.controller.PessoaEventController;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Feed SSE: retomada com Last-Event-ID dentro e fora do buffer e
+ * desconexão de assinante lento, por fila cheia ou por escrita travada.
+ */
+class PessoaEventStreamTests {
+    private static final Pattern ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+    private static final String SEM_TRAVAR = "X-Cliente-Rapido";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch liberarCliente = new CountDownLatch(1);
+    private volatile boolean clienteLento;
+    private PessoaEventStream stream;
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void encerrar() throws InterruptedException {
+        liberarCliente.countDown();
+        stream.encerrar();
+    }
+
+    @Test
+    void retomaAPartirDoLastEventIdDentroDoBuffer() throws Exception {
+        iniciar(8, 16);
+        MockHttpServletResponse primeiro = assinar(null);
+        publicar(1L);
+        publicar(2L);
+        publicar(3L);
+        await().until(() -> ids(primeiro).size() == 3);
+        List<String> ids = ids(primeiro);
+
+        MockHttpServletResponse retomada = assinar(ids.get(0));
+
+        await().until(() -> ids(retomada).size() == 2);
+        assertThat(ids(retomada)).containsExactly(ids.get(1), ids.get(2));
+        assertThat(retomada.getContentAsString()).doesNotContain("RESSINCRONIZAR");
+    }
+
+    @Test
+    void pedeRessincronizacaoQuandoOLastEventIdSaiuDoBuffer() throws Exception {
+        iniciar(2, 16);
+        MockHttpServletResponse primeiro = assinar(null);
+        for (long id = 1; id <= 5; id++) {
+            publicar(id);
+        }
+        await().until(() -> ids(primeiro).size() == 5);
+
+        MockHttpServletResponse foraDoBuffer = assinar(ids(primeiro).get(0));
+        MockHttpServletResponse outraExecucao = assinar("1");
+
+        await().until(() -> foraDoBuffer.getContentAsString().contains("event:RESSINCRONIZAR"));
+        await().until(() -> outraExecucao.getContentAsString().contains("event:RESSINCRONIZAR"));
+        assertThat(ids(foraDoBuffer)).isEmpty();
+
+        // Depois do aviso, a assinatura segue recebendo os eventos novos
+        publicar(6L);
+        await().until(() -> ids(foraDoBuffer).size() == 1);
+    }
+
+    @Test
+    void desconectaAssinanteQueNaoConsomeATempo() throws Exception {
+        iniciar(8, 2, 60_000);
+        MockHttpServletResponse lento = assinar(null);
+        assertThat(meterRegistry.get("pessoa.eventos.assinantes").gauge().value()).isEqualTo(1);
+
+        // A thread de envio fica presa escrevendo para o cliente e a fila enche
+        clienteLento = true;
+        for (long id = 1; id <= 4; id++) {
+            publicar(id);
+        }
+
+        assertThat(meterRegistry.get("pessoa.eventos.desconexoes").tag("motivo", "fila-cheia").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("pessoa.eventos.assinantes").gauge().value()).isZero();
+
+        // Liberado, o cliente recebe no máximo o evento que estava em envio
+        liberarCliente.countDown();
+        publicar(5L);
+        await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(2))
+                .until(() -> ids(lento).size() <= 1);
+    }
+
+    @Test
+    void escritaTravadaDesconectaSoOAssinanteLento() throws Exception {
+        iniciar(8, 16, 200);
+        MockHttpServletResponse lento = assinar(null);
+
+        // Com uma thread de envio, a escrita travada no lento seguraria o outro
+        clienteLento = true;
+        publicar(1L);
+        MockHttpServletResponse rapido = assinarSemTravar();
+        publicar(2L);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> ids(rapido).size() == 1);
+        assertThat(meterRegistry.get("pessoa.eventos.desconexoes").tag("motivo", "escrita-lenta").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("pessoa.eventos.assinantes").gauge().value()).isEqualTo(1);
+        assertThat(ids(lento)).hasSizeLessThanOrEqualTo(1);
+    }
+
+    private void iniciar(int tamanhoBuffer, int capacidadeFila) {
+        iniciar(tamanhoBuffer, capacidadeFila, 60_000);
+    }
+
+    private void iniciar(int tamanhoBuffer, int capacidadeFila, long timeoutEscritaMs) {
+        stream = new PessoaEventStream(tamanhoBuffer, capacidadeFila, 10, 60_000, 1, timeoutEscritaMs, meterRegistry);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PessoaEventController(stream))
+                .addFilter(clienteQueTrava())
+                .build();
+    }
+
+    private MockHttpServletResponse assinar(String lastEventId) throws Exception {
+        var requisicao = get("/api/eventos");
+        if (lastEventId != null) {
+            requisicao.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(requisicao)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private MockHttpServletResponse assinarSemTravar() throws Exception {
+        return mockMvc.perform(get("/api/eventos").header(SEM_TRAVAR, "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private void publicar(Long pessoaId) {
+        stream.onPessoaChanged(new PessoaChangedEvent(PessoaEventType.CRIADA, pessoaId, null));
+    }
+
+    private static List<String> ids(MockHttpServletResponse resposta) throws IOException {
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(resposta.getContentAsString());
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    /**
+     * Simula um cliente cuja conexão não escoa: com clienteLento ligado, a
+     * escrita bloqueia até o teste liberar. Requisições com SEM_TRAVAR
+     * escrevem direto.
+     */
+    private Filter clienteQueTrava() {
+        return (req, res, chain) -> chain.doFilter(req, ((HttpServletRequest) req).getHeader(SEM_TRAVAR) != null
+                ? res : new HttpServletResponseWrapper((HttpServletResponse) res) {
+            @Override
+            public ServletOutputStream getOutputStream() throws IOException {
+                ServletOutputStream saida = super.getOutputStream();
+                return new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        esperarCliente();
+                        saida.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        esperarCliente();
+                        saida.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        saida.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                    }
+                };
+            }
+        });
+    }
+
+    private void esperarCliente() {
+        if (clienteLento) {
+            try {
+                liberarCliente.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
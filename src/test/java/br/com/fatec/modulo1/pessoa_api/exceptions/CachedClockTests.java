@@ -0,0 +1,31 @@
+package br.com.fatec.modulo1.pessoa_api.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedClockTests {
+
+    @Test
+    void primeiraLeituraJaTemHorario() {
+        LocalDateTime antes = LocalDateTime.now().minusSeconds(1);
+
+        LocalDateTime agora = new CachedClock(10_000).agora();
+
+        assertThat(agora).isNotNull().isAfter(antes);
+    }
+
+    @Test
+    void reusaOHorarioDentroDaResolucaoEAvancaDepois() throws InterruptedException {
+        CachedClock clock = new CachedClock(20);
+
+        LocalDateTime primeira = clock.agora();
+        assertThat(clock.agora()).isSameAs(primeira);
+
+        Thread.sleep(40);
+
+        assertThat(clock.agora()).isAfter(primeira);
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.fatec.modulo1.pessoa_api.exceptions;
+
+import br.com.fatec.modulo1.pessoa_api.Benchmark;
+import br.com.fatec.modulo1.pessoa_api.Benchmark.Resultado;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark do caminho de um 404: criação da exceção e tratamento no handler.
+ * Só roda quando habilitado: ./mvnw test -Dtest=ErrorPathBenchmarkTests -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ErrorPathBenchmarkTests {
+
+    private static final int ITERACOES = 200_000;
+    private static final int PROFUNDIDADE_PILHA = 120;
+
+    @Test
+    void custoDoNotFound() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/999");
+        GlobalExceptionHandler padrao = new GlobalExceptionHandler(false, 10, 1000, 10);
+        GlobalExceptionHandler enxuto = new GlobalExceptionHandler(true, 10, 1000, 10);
+
+        // Antes: exceção com stack trace e mensagem via String.format
+        LongFunction<RuntimeException> comPilha = id ->
+                new RuntimeException(String.format("%s não encontrado com ID: %d", "Pessoa", id));
+        LongFunction<RuntimeException> semPilha = id -> new ResourceNotFoundException("Pessoa", id);
+
+        Resultado criacaoComPilha = Benchmark.medir("criação com stack trace", ITERACOES,
+                id -> emProfundidade(PROFUNDIDADE_PILHA, comPilha, id));
+        Resultado criacaoSemPilha = Benchmark.medir("criação sem stack trace", ITERACOES,
+                id -> emProfundidade(PROFUNDIDADE_PILHA, semPilha, id));
+        Resultado handlerPadrao = Benchmark.medir("handler padrão", ITERACOES,
+                id -> padrao.handleResourceNotFound(new ResourceNotFoundException("Pessoa", (long) id), request));
+        Resultado handlerEnxuto = Benchmark.medir("handler enxuto", ITERACOES,
+                id -> enxuto.handleResourceNotFound(new ResourceNotFoundException("Pessoa", (long) id), request));
+
+        assertThat(criacaoSemPilha.nsPorOperacao()).isLessThan(criacaoComPilha.nsPorOperacao());
+        assertThat(handlerEnxuto.nsPorOperacao()).isLessThan(handlerPadrao.nsPorOperacao());
+    }
+
+    private static RuntimeException emProfundidade(int profundidade, LongFunction<RuntimeException> criar, long id) {
+        if (profundidade == 0) {
+            return criar.apply(id);
+        }
+        return emProfundidade(profundidade - 1, criar, id);
+    }
+}
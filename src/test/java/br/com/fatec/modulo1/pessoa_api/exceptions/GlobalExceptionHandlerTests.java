@@ -0,0 +1,49 @@
+package br.com.fatec.modulo1.pessoa_api.exceptions;
+
+import br.com.fatec.modulo1.pessoa_api.controller.PessoaController;
+import br.com.fatec.modulo1.pessoa_api.services.PessoaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Corpo das respostas de erro produzidas pelo GlobalExceptionHandler.
+ */
+class GlobalExceptionHandlerTests {
+
+    private final PessoaService service = mock(PessoaService.class);
+
+    @Test
+    void notFoundNoModoEnxutoTrazTimestamp() throws Exception {
+        doThrow(new ResourceNotFoundException("Pessoa", 999L)).when(service).deletarPorId(999L);
+
+        mockMvc(true).perform(delete("/api/999"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.timestamp").isNotEmpty())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value("Pessoa não encontrado com ID: 999"))
+                .andExpect(jsonPath("$.path").value("/api/999"));
+    }
+
+    @Test
+    void idInvalidoUsaMensagemPronta() throws Exception {
+        doThrow(new ValidationException("id", -1L, ErrorMessages.ID_INVALIDO)).when(service).deletarPorId(-1L);
+
+        mockMvc(true).perform(delete("/api/-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.timestamp").isNotEmpty())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.ID_INVALIDO));
+    }
+
+    private MockMvc mockMvc(boolean leanMode) {
+        return MockMvcBuilders.standaloneSetup(new PessoaController(service))
+                .setControllerAdvice(new GlobalExceptionHandler(leanMode, 10, 1000, 10))
+                .build();
+    }
+}
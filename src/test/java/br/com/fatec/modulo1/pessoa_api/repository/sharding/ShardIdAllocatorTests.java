@@ -0,0 +1,79 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardIdAllocatorTests {
+
+    private final DataSource catalogo = new DriverManagerDataSource(
+            "jdbc:h2:mem:catalogo_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+    @Test
+    void comecaDepoisDoMaiorIdEReservaBlocos() {
+        ShardIdAllocator allocator = new ShardIdAllocator(catalogo, 3);
+        allocator.inicializar(() -> 41);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(allocator.proximoId());
+        }
+
+        assertThat(ids).containsExactly(42L, 43L, 44L, 45L, 46L, 47L, 48L);
+        assertThat(proximoNoCatalogo()).isEqualTo(51);
+    }
+
+    @Test
+    void reinicioNaoReusaIdsDoBlocoAnterior() {
+        ShardIdAllocator antes = new ShardIdAllocator(catalogo, 10);
+        antes.inicializar(() -> 0);
+        assertThat(antes.proximoId()).isEqualTo(1);
+        assertThat(antes.proximoId()).isEqualTo(2);
+
+        // Nova instância no mesmo catálogo: a sequência já existe e não é
+        // recriada a partir do maior id; o resto do bloco antigo é perdido
+        ShardIdAllocator depois = new ShardIdAllocator(catalogo, 10);
+        depois.inicializar(() -> 2);
+
+        assertThat(depois.proximoId()).isEqualTo(11);
+        assertThat(proximoNoCatalogo()).isEqualTo(21);
+    }
+
+    @Test
+    void instanciasSimultaneasNuncaRepetemIds() throws InterruptedException {
+        ShardIdAllocator primeira = new ShardIdAllocator(catalogo, 5);
+        primeira.inicializar(() -> 0);
+        ShardIdAllocator segunda = new ShardIdAllocator(catalogo, 5);
+        segunda.inicializar(() -> 0);
+
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (ShardIdAllocator allocator : List.of(primeira, segunda, primeira, segunda)) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 500; i++) {
+                    ids.add(allocator.proximoId());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(ids).hasSize(2_000);
+        assertThat(new HashSet<>(ids)).hasSize(2_000);
+    }
+
+    private long proximoNoCatalogo() {
+        return new JdbcTemplate(catalogo)
+                .queryForObject("SELECT proximo FROM pessoa_id_blocos", Long.class);
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaDuplicadaException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tabela de chaves de duplicidade dos shards: falha na gravação depois da
+ * reserva, limpeza de chaves órfãs na inicialização e duplicatas gravadas
+ * antes da regra.
+ */
+class ShardKeyRegistryTests {
+    private static final LocalDate NASCIMENTO = LocalDate.of(1980, 1, 1);
+
+    private ShardedPessoaStore store;
+
+    @BeforeEach
+    void abrir() {
+        String prefixo = "jdbc:h2:mem:chaves_" + UUID.randomUUID() + "_";
+        List<String> urls = IntStream.range(0, 2)
+                .mapToObj(i -> prefixo + i + ";DB_CLOSE_DELAY=-1")
+                .toList();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        ObjectProvider<MeterRegistry> metricas = beans.getBeanProvider(MeterRegistry.class);
+        store = new ShardedPessoaStore(urls, "sa", "", 4, 10, metricas);
+    }
+
+    @AfterEach
+    void fechar() {
+        store.destroy();
+    }
+
+    @Test
+    void falhaAoGravarAAtualizacaoMantemAChaveAnterior() {
+        Pessoa ana = store.save(new Pessoa(null, NASCIMENTO, "Ana", true));
+        JdbcTemplate shard = store.shards().get(store.shardIndexDe(ana.getId()));
+
+        shard.execute("ALTER TABLE pessoas_table RENAME TO pessoas_fora");
+        assertThatThrownBy(() -> store.save(new Pessoa(ana.getId(), NASCIMENTO, "Bia", true)))
+                .isInstanceOf(DataAccessException.class);
+        shard.execute("ALTER TABLE pessoas_fora RENAME TO pessoas_table");
+
+        assertThat(store.existsByNomeAndNascimento("Ana", NASCIMENTO)).isTrue();
+        assertThat(store.existsByNomeAndNascimento("Bia", NASCIMENTO)).isFalse();
+        assertThat(store.save(new Pessoa(null, NASCIMENTO, "Bia", true)).getId()).isNotNull();
+    }
+
+    @Test
+    void inicializacaoRemoveChavesOrfas() {
+        Pessoa ana = store.save(new Pessoa(null, NASCIMENTO, "Ana", true));
+        JdbcTemplate catalogo = store.shards().get(0);
+        // Gravações interrompidas: chave de um id que não chegou ao shard e
+        // chave antiga de uma troca de nome não confirmada
+        catalogo.update("INSERT INTO pessoa_chaves (nome_chave, dt_nascimento, id) VALUES ('carla', ?, 999999)", NASCIMENTO);
+        catalogo.update("INSERT INTO pessoa_chaves (nome_chave, dt_nascimento, id) VALUES ('ana antiga', ?, ?)",
+                NASCIMENTO, ana.getId());
+
+        store.preencherChavesDeDuplicidade();
+
+        assertThat(store.existsByNomeAndNascimento("Carla", NASCIMENTO)).isFalse();
+        assertThat(store.existsByNomeAndNascimento("Ana antiga", NASCIMENTO)).isFalse();
+        assertThat(store.existsByNomeAndNascimento("Ana", NASCIMENTO)).isTrue();
+    }
+
+    @Test
+    void duplicataAntigaSemChaveContinuaAtualizavel() {
+        Pessoa ana = store.save(new Pessoa(null, NASCIMENTO, "Ana", true));
+        store.save(new Pessoa(null, NASCIMENTO, "Bia", true));
+        // Linha gravada antes da regra, repetindo a chave de Ana
+        long legada = 999_999L;
+        store.shards().get(store.shardIndexDe(legada)).update(
+                "INSERT INTO pessoas_table (id, dt_nascimento, nome, ativo) VALUES (?, ?, 'ANA', TRUE)",
+                legada, NASCIMENTO);
+        store.preencherChavesDeDuplicidade();
+
+        Pessoa desativada = store.save(new Pessoa(legada, NASCIMENTO, "Ána", false));
+        assertThat(desativada.getAtivo()).isFalse();
+        assertThat(store.findById(ana.getId())).isPresent();
+
+        assertThatThrownBy(() -> store.save(new Pessoa(legada, NASCIMENTO, "bia", true)))
+                .isInstanceOf(PessoaDuplicadaException.class);
+
+        store.save(new Pessoa(legada, NASCIMENTO, "Ana Maria", true));
+        assertThat(store.existsByNomeAndNascimento("ana maria", NASCIMENTO)).isTrue();
+        assertThat(store.existsByNomeAndNascimento("Ana", NASCIMENTO)).isTrue();
+    }
+}
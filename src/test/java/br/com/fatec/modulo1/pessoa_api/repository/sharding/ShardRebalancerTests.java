@@ -0,0 +1,135 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Passagem de 2 para 3 shards H2: cada pessoa termina no shard indicado
+ * pela nova configuração, sem perdas nem cópias.
+ */
+class ShardRebalancerTests {
+    private static final int PESSOAS = 300;
+
+    private final String prefixo = "jdbc:h2:mem:rebalanceamento_" + UUID.randomUUID() + "_";
+    private final List<ShardedPessoaStore> abertos = new ArrayList<>();
+
+    @AfterEach
+    void fechar() {
+        abertos.forEach(ShardedPessoaStore::destroy);
+    }
+
+    @Test
+    void moveCadaPessoaParaOShardDaNovaConfiguracao() {
+        List<Long> ids = popularComDoisShards();
+        ShardedPessoaStore tresShards = abrir(3);
+        assertThat(contar(tresShards.shards().get(2))).isZero();
+
+        new ShardRebalancer(tresShards, 50).run(null);
+
+        assertThat(ids).allSatisfy(id -> assertThat(tresShards.findById(id)).isPresent());
+        assertDistribuicaoCorreta(tresShards);
+        // Cerca de 1/3 das pessoas vai para o shard novo
+        assertThat(contar(tresShards.shards().get(2))).isBetween(PESSOAS / 3 - 40L, PESSOAS / 3 + 40L);
+        assertThat(tresShards.findByAtivoTrue(PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(PESSOAS - PESSOAS / 3);
+    }
+
+    @Test
+    void novaExecucaoRemoveCopiasDeUmaInterrompida() {
+        List<Long> ids = popularComDoisShards();
+        ShardedPessoaStore tresShards = abrir(3);
+
+        // Interrupção entre o insert no destino e o delete na origem
+        long emMovimento = ids.stream().filter(id -> tresShards.shardIndexDe(id) == 2).findFirst().orElseThrow();
+        JdbcTemplate origem = tresShards.shards().get(ShardRouter.shardFor(emMovimento, 2));
+        Pessoa copia = origem.queryForObject("SELECT " + ShardedPessoaStore.COLUNAS + " FROM pessoas_table WHERE id = ?",
+                ShardedPessoaStore.PESSOA_MAPPER, emMovimento);
+        tresShards.shards().get(2).update("INSERT INTO pessoas_table (" + ShardedPessoaStore.COLUNAS + ") VALUES (?, ?, ?, ?)",
+                copia.getId(), copia.getDt_nascimento(), copia.getNome(), copia.getAtivo());
+
+        new ShardRebalancer(tresShards, 50).run(null);
+
+        assertDistribuicaoCorreta(tresShards);
+        assertThat(tresShards.shards().get(2).queryForObject(
+                "SELECT COUNT(*) FROM pessoas_table WHERE id = ?", Long.class, emMovimento)).isEqualTo(1);
+    }
+
+    @Test
+    void escritaFeitaDuranteORebalanceamentoNaoEPerdida() {
+        List<Long> ids = popularComDoisShards();
+        ShardedPessoaStore tresShards = abrir(3);
+        List<Long> paraOShardNovo = ids.stream().filter(id -> tresShards.shardIndexDe(id) == 2).toList();
+        long atualizada = paraOShardNovo.get(0);
+        long removida = paraOShardNovo.get(1);
+
+        // Com o rebalanceamento ligado, a atualização cai no shard novo antes
+        // de a linha sair do antigo
+        tresShards.setRebalanceando(true);
+        tresShards.save(new Pessoa(atualizada, LocalDate.of(2000, 1, 1), "Atualizada", true));
+        tresShards.deleteById(removida);
+
+        new ShardRebalancer(tresShards, 50).run(null);
+
+        assertThat(tresShards.findById(atualizada)).get().extracting(Pessoa::getNome).isEqualTo("Atualizada");
+        assertThat(tresShards.findById(removida)).isEmpty();
+        long total = 0;
+        for (JdbcTemplate shard : tresShards.shards()) {
+            total += contar(shard);
+        }
+        assertThat(total).isEqualTo(PESSOAS - 1);
+    }
+
+    private List<Long> popularComDoisShards() {
+        ShardedPessoaStore doisShards = abrir(2);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PESSOAS; i++) {
+            Pessoa pessoa = new Pessoa(null, LocalDate.of(1970, 1, 1).plusDays(i), "Pessoa " + i, i % 3 != 0);
+            ids.add(doisShards.save(pessoa).getId());
+        }
+        doisShards.destroy();
+        abertos.remove(doisShards);
+        return ids;
+    }
+
+    private void assertDistribuicaoCorreta(ShardedPessoaStore store) {
+        long total = 0;
+        for (int shard = 0; shard < store.shards().size(); shard++) {
+            List<Long> ids = store.shards().get(shard).queryForList("SELECT id FROM pessoas_table", Long.class);
+            int esperado = shard;
+            assertThat(ids).allSatisfy(id -> assertThat(store.shardIndexDe(id)).isEqualTo(esperado));
+            total += ids.size();
+        }
+        assertThat(total).isEqualTo(PESSOAS);
+    }
+
+    private ShardedPessoaStore abrir(int shards) {
+        List<String> urls = IntStream.range(0, shards)
+                .mapToObj(i -> prefixo + i + ";DB_CLOSE_DELAY=-1")
+                .toList();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        ObjectProvider<MeterRegistry> metricas = beans.getBeanProvider(MeterRegistry.class);
+        ShardedPessoaStore store = new ShardedPessoaStore(urls, "sa", "", 4, 20, metricas);
+        abertos.add(store);
+        return store;
+    }
+
+    private static long contar(JdbcTemplate shard) {
+        return shard.queryForObject("SELECT COUNT(*) FROM pessoas_table", Long.class);
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardRouterTests {
+
+    @Test
+    void mesmosShardsDaImplementacaoDeReferencia() {
+        // Valores do algoritmo original (Lamping e Veach): mudar qualquer um
+        // deles manda ids já gravados para o shard errado
+        assertThat(ShardRouter.shardFor(1, 10)).isEqualTo(6);
+        assertThat(ShardRouter.shardFor(2, 4)).isEqualTo(3);
+        assertThat(ShardRouter.shardFor(3, 3)).isEqualTo(2);
+        assertThat(ShardRouter.shardFor(42, 2)).isEqualTo(1);
+        assertThat(ShardRouter.shardFor(42, 10)).isEqualTo(2);
+        assertThat(ShardRouter.shardFor(1000, 10)).isEqualTo(9);
+        assertThat(ShardRouter.shardFor(123456789, 10)).isEqualTo(7);
+        assertThat(ShardRouter.shardFor(9007199254740993L, 4)).isEqualTo(3);
+    }
+
+    @Test
+    void aoCrescerSoMoveIdsParaOShardNovo() {
+        int ids = 100_000;
+        for (int shards = 1; shards < 8; shards++) {
+            int movidos = 0;
+            for (long id = 1; id <= ids; id++) {
+                int antes = ShardRouter.shardFor(id, shards);
+                int depois = ShardRouter.shardFor(id, shards + 1);
+                assertThat(antes).isBetween(0, shards - 1);
+                if (depois != antes) {
+                    assertThat(depois).isEqualTo(shards);
+                    movidos++;
+                }
+            }
+            // Cerca de 1/(N+1) dos ids muda de shard
+            double esperado = (double) ids / (shards + 1);
+            assertThat((double) movidos).isBetween(esperado * 0.95, esperado * 1.05);
+        }
+    }
+
+    @Test
+    void distribuiIdsSequenciaisDeFormaUniforme() {
+        int shards = 4;
+        int[] contagem = new int[shards];
+        for (long id = 1; id <= 40_000; id++) {
+            contagem[ShardRouter.shardFor(id, shards)]++;
+        }
+        for (int total : contagem) {
+            assertThat(total).isBetween(9_500, 10_500);
+        }
+    }
+}
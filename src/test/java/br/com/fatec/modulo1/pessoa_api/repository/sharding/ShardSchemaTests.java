@@ -0,0 +1,50 @@
+package br.com.fatec.modulo1.pessoa_api.repository.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DDL dos shards e da tabela de chaves de duplicidade no caminho MySQL,
+ * executado no H2 em MODE=MySQL, que rejeita CREATE INDEX IF NOT EXISTS
+ * como o MySQL 8.
+ */
+class ShardSchemaTests {
+
+    private final JdbcTemplate shard = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:schema_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @Test
+    void criaTabelaEIndiceDeListagemEPodeRodarDeNovo() {
+        ShardSchema.criarTabelaPessoas(shard, true);
+        ShardSchema.criarTabelaPessoas(shard, true);
+
+        assertThat(ShardSchema.existeIndice(shard, "idx_pessoas_ativo_nome", "pessoas_table")).isTrue();
+        shard.update("INSERT INTO pessoas_table (id, dt_nascimento, nome, ativo) VALUES (1, NULL, 'Ana', TRUE)");
+        assertThat(shard.queryForObject("SELECT COUNT(*) FROM pessoas_table", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void criaOIndiceEmTabelaAntigaSemEle() {
+        shard.execute("CREATE TABLE pessoas_table (id BIGINT PRIMARY KEY, dt_nascimento DATE, "
+                + "nome VARCHAR(255), ativo BOOLEAN NOT NULL)");
+        assertThat(ShardSchema.existeIndice(shard, "idx_pessoas_ativo_nome", "pessoas_table")).isFalse();
+
+        ShardSchema.criarTabelaPessoas(shard, true);
+
+        assertThat(ShardSchema.existeIndice(shard, "idx_pessoas_ativo_nome", "pessoas_table")).isTrue();
+    }
+
+    @Test
+    void criaTabelaDeChavesComIndicePorIdEPodeRodarDeNovo() {
+        ShardKeyRegistry chaves = new ShardKeyRegistry(shard);
+        chaves.inicializar(true);
+        chaves.inicializar(true);
+
+        assertThat(ShardSchema.existeIndice(shard, "idx_pessoa_chaves_id", "pessoa_chaves")).isTrue();
+    }
+}
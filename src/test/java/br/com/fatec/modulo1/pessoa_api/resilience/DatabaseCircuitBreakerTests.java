@@ -0,0 +1,97 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+import br.com.fatec.modulo1.pessoa_api.resilience.DatabaseCircuitBreaker.Estado;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseCircuitBreakerTests {
+
+    private final AtomicLong agora = new AtomicLong(1_000_000);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(3, 10_000, meterRegistry, agora::get);
+
+    @Test
+    void abreSoDepoisDeFalhasConsecutivas() {
+        breaker.registrarFalha();
+        breaker.registrarFalha();
+        breaker.registrarSucesso();
+        breaker.registrarFalha();
+        breaker.registrarFalha();
+        assertThat(breaker.getEstado()).isEqualTo(Estado.FECHADO);
+        assertThat(breaker.permitir()).isTrue();
+
+        breaker.registrarFalha();
+
+        assertThat(breaker.getEstado()).isEqualTo(Estado.ABERTO);
+        assertThat(meterRegistry.get("pessoa.db.circuito.aberturas").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void abertoRecusaAteOFimDaJanela() {
+        abrir();
+
+        agora.addAndGet(9_999);
+        assertThat(breaker.permitir()).isFalse();
+        assertThat(breaker.permitir()).isFalse();
+
+        assertThat(breaker.getEstado()).isEqualTo(Estado.ABERTO);
+        assertThat(meterRegistry.get("pessoa.db.circuito.rejeicoes").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void meioAbertoAdmiteUmaTentativaEFechaNoSucesso() {
+        abrir();
+        agora.addAndGet(10_000);
+
+        assertThat(breaker.permitir()).isTrue();
+        assertThat(breaker.getEstado()).isEqualTo(Estado.MEIO_ABERTO);
+        assertThat(breaker.permitir()).isFalse();
+
+        breaker.registrarSucesso();
+
+        assertThat(breaker.getEstado()).isEqualTo(Estado.FECHADO);
+        assertThat(breaker.permitir()).isTrue();
+        assertThat(breaker.permitir()).isTrue();
+    }
+
+    @Test
+    void falhaNoMeioAbertoReabreComNovaJanela() {
+        abrir();
+        agora.addAndGet(10_000);
+        assertThat(breaker.permitir()).isTrue();
+
+        breaker.registrarFalha();
+
+        assertThat(breaker.getEstado()).isEqualTo(Estado.ABERTO);
+        agora.addAndGet(9_999);
+        assertThat(breaker.permitir()).isFalse();
+        agora.addAndGet(1);
+        assertThat(breaker.permitir()).isTrue();
+        assertThat(meterRegistry.get("pessoa.db.circuito.aberturas").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void tentativaSemResultadoLiberaAVaga() {
+        abrir();
+        agora.addAndGet(10_000);
+        assertThat(breaker.permitir()).isTrue();
+
+        // Ex.: a requisição de teste terminou com 500 não relacionado ao banco
+        breaker.liberarTentativa();
+
+        assertThat(breaker.getEstado()).isEqualTo(Estado.MEIO_ABERTO);
+        assertThat(breaker.permitir()).isTrue();
+    }
+
+    private void abrir() {
+        for (int i = 0; i < 3; i++) {
+            breaker.registrarFalha();
+        }
+        assertThat(breaker.getEstado()).isEqualTo(Estado.ABERTO);
+    }
+}
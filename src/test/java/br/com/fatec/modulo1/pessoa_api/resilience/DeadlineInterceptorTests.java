@@ -0,0 +1,149 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+import br.com.fatec.modulo1.pessoa_api.controller.PessoaController;
+import br.com.fatec.modulo1.pessoa_api.exceptions.ErrorMessages;
+import br.com.fatec.modulo1.pessoa_api.exceptions.GlobalExceptionHandler;
+import br.com.fatec.modulo1.pessoa_api.exceptions.ValidationException;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import br.com.fatec.modulo1.pessoa_api.services.PessoaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prazo por requisição, respostas 504/503 do GlobalExceptionHandler e
+ * circuit breaker, juntos na cadeia do Spring MVC.
+ */
+class DeadlineInterceptorTests {
+
+    private final PessoaService service = mock(PessoaService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong agora = new AtomicLong(1_000_000);
+    private final DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(2, 10_000, meterRegistry, agora::get);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PessoaController(service))
+            .setControllerAdvice(new GlobalExceptionHandler(true, 10, 1000, 10))
+            .addInterceptors(new DeadlineInterceptor(
+                    new MockEnvironment()
+                            .withProperty("pessoa-api.timeouts.default-ms", "3000")
+                            .withProperty("pessoa-api.timeouts.operations.listar", "800"),
+                    breaker, meterRegistry))
+            .build();
+
+    @Test
+    void prazoDaOperacaoLimitadoPeloCabecalhoDoCliente() throws Exception {
+        AtomicReference<Deadline> visto = new AtomicReference<>();
+        when(service.listar(0)).thenAnswer(invocacao -> {
+            visto.set(Deadline.atual());
+            return paginaVazia();
+        });
+
+        mockMvc.perform(get("/api")).andExpect(status().isOk());
+        assertThat(visto.get().getOperacao()).isEqualTo("listar");
+        assertThat(visto.get().restanteMs()).isBetween(1L, 800L);
+
+        mockMvc.perform(get("/api").header(DeadlineInterceptor.HEADER_TIMEOUT, "50")).andExpect(status().isOk());
+        assertThat(visto.get().restanteMs()).isLessThanOrEqualTo(50);
+        assertThat(Deadline.atual()).isNull();
+    }
+
+    @Test
+    void timeoutDeConsultaResponde504EContaFalha() throws Exception {
+        when(service.listar(0)).thenThrow(new QueryTimeoutException("Statement cancelado"));
+
+        mockMvc.perform(get("/api"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(request().attribute(DeadlineInterceptor.ATRIBUTO_FALHA_BANCO, DeadlineInterceptor.FALHA_TIMEOUT))
+                .andExpect(jsonPath("$.status").value(504))
+                .andExpect(jsonPath("$.timestamp").isNotEmpty());
+
+        assertThat(meterRegistry.get("pessoa.db.falhas").tag("tipo", "timeout").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void falhaDeConexaoResponde503EAbreOCircuito() throws Exception {
+        when(service.listar(0)).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(request().attribute(DeadlineInterceptor.ATRIBUTO_FALHA_BANCO, DeadlineInterceptor.FALHA_CONEXAO));
+        }
+        assertThat(breaker.getEstado()).isEqualTo(DatabaseCircuitBreaker.Estado.ABERTO);
+
+        // Circuito aberto: 503 sem chegar ao service e sem contar nova falha
+        mockMvc.perform(get("/api"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(request().attribute(DeadlineInterceptor.ATRIBUTO_FALHA_BANCO, (Object) null))
+                .andExpect(jsonPath("$.error").value("Service Unavailable"));
+        verify(service, times(2)).listar(0);
+    }
+
+    @Test
+    void tentativaBemSucedidaFechaOCircuito() throws Exception {
+        when(service.listar(0)).thenThrow(new QueryTimeoutException("Statement cancelado"));
+        mockMvc.perform(get("/api")).andExpect(status().isGatewayTimeout());
+        mockMvc.perform(get("/api")).andExpect(status().isGatewayTimeout());
+        assertThat(breaker.getEstado()).isEqualTo(DatabaseCircuitBreaker.Estado.ABERTO);
+
+        agora.addAndGet(10_000);
+        doAnswer(invocacao -> paginaLidaDoBanco()).when(service).listar(0);
+        mockMvc.perform(get("/api")).andExpect(status().isOk());
+
+        assertThat(breaker.getEstado()).isEqualTo(DatabaseCircuitBreaker.Estado.FECHADO);
+    }
+
+    @Test
+    void respostaSemAcessoAoBancoNaoFechaOCircuito() throws Exception {
+        when(service.listar(0)).thenThrow(new QueryTimeoutException("Statement cancelado"));
+        mockMvc.perform(get("/api")).andExpect(status().isGatewayTimeout());
+        mockMvc.perform(get("/api")).andExpect(status().isGatewayTimeout());
+        agora.addAndGet(10_000);
+
+        // A tentativa termina em 400 antes de chegar ao banco: circuito segue meio-aberto
+        doThrow(new ValidationException("campos", "", ErrorMessages.CAMPOS_VAZIOS)).when(service).listar(0);
+        mockMvc.perform(get("/api")).andExpect(status().isBadRequest());
+        assertThat(breaker.getEstado()).isEqualTo(DatabaseCircuitBreaker.Estado.MEIO_ABERTO);
+
+        // A vaga de teste foi liberada; a próxima requisição que acessa o banco fecha
+        doAnswer(invocacao -> paginaLidaDoBanco()).when(service).listar(0);
+        mockMvc.perform(get("/api")).andExpect(status().isOk());
+        assertThat(breaker.getEstado()).isEqualTo(DatabaseCircuitBreaker.Estado.FECHADO);
+    }
+
+    /**
+     * Simula o service abrindo uma transação, como faz o @Transactional.
+     */
+    private static Page<Pessoa> paginaLidaDoBanco() {
+        new DeadlineTransactionManager(mock(PlatformTransactionManager.class)).getTransaction(null);
+        return paginaVazia();
+    }
+
+    private static Page<Pessoa> paginaVazia() {
+        return new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.fatec.modulo1.pessoa_api.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * O tempo restante do prazo da requisição vira query timeout dos statements
+ * JDBC e timeout das transações.
+ */
+class DeadlineTimeoutsTests {
+
+    @AfterEach
+    void limpar() {
+        Deadline.limpar();
+    }
+
+    @Test
+    void prazoRestanteViraQueryTimeout() throws SQLException {
+        Statement statement = mock(Statement.class);
+        Deadline.definir(new Deadline("listar", 2_500));
+
+        new DeadlineJdbcTemplate(mock(DataSource.class)).applyStatementSettings(statement);
+
+        verify(statement).setQueryTimeout(3);
+    }
+
+    @Test
+    void queryTimeoutMenorJaConfiguradoEMantido() throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(statement.getQueryTimeout()).thenReturn(1);
+        DeadlineJdbcTemplate template = new DeadlineJdbcTemplate(mock(DataSource.class));
+        template.setQueryTimeout(1);
+        Deadline.definir(new Deadline("listar", 5_000));
+
+        template.applyStatementSettings(statement);
+
+        verify(statement).setQueryTimeout(1);
+        verify(statement, never()).setQueryTimeout(5);
+    }
+
+    @Test
+    void semPrazoNaoAlteraOStatement() throws SQLException {
+        Statement statement = mock(Statement.class);
+
+        new DeadlineJdbcTemplate(mock(DataSource.class)).applyStatementSettings(statement);
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void prazoRestanteViraTimeoutDaTransacao() {
+        PlatformTransactionManager delegate = mock(PlatformTransactionManager.class);
+        DefaultTransactionDefinition leitura = new DefaultTransactionDefinition();
+        leitura.setReadOnly(true);
+        Deadline.definir(new Deadline("listar", 1_200));
+
+        new DeadlineTransactionManager(delegate).getTransaction(leitura);
+
+        ArgumentCaptor<TransactionDefinition> definicao = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(delegate).getTransaction(definicao.capture());
+        assertThat(definicao.getValue().getTimeout()).isEqualTo(2);
+        assertThat(definicao.getValue().isReadOnly()).isTrue();
+    }
+
+    @Test
+    void timeoutExplicitoDaTransacaoPrevalece() {
+        PlatformTransactionManager delegate = mock(PlatformTransactionManager.class);
+        DefaultTransactionDefinition explicita = new DefaultTransactionDefinition();
+        explicita.setTimeout(30);
+        Deadline.definir(new Deadline("listar", 1_200));
+
+        new DeadlineTransactionManager(delegate).getTransaction(explicita);
+
+        verify(delegate).getTransaction(explicita);
+    }
+
+    @Test
+    void prazoEsgotadoNaoAbreTransacao() {
+        PlatformTransactionManager delegate = mock(PlatformTransactionManager.class);
+        Deadline.definir(new Deadline("salvar", 0));
+
+        assertThatThrownBy(() -> new DeadlineTransactionManager(delegate).getTransaction(null))
+                .isInstanceOf(DeadlineExceededException.class);
+        verify(delegate, never()).getTransaction(any());
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.fatec.modulo1.pessoa_api.services;
+
+import br.com.fatec.modulo1.pessoa_api.duplicates.DuplicatePessoaDetector;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaRepository;
+import br.com.fatec.modulo1.pessoa_api.exceptions.ValidationException;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Contrato do PessoaService sobre o PessoaRepository (JPA) com H2, mais o
+ * preenchimento da chave de duplicidade de registros antigos. O H2 roda em
+ * MODE=MySQL para aceitar a definição de nome_chave com utf8mb4_bin.
+ */
+@DataJpaTest
+@Import({PessoaService.class, DuplicatePessoaDetector.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:jpa_pessoas;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class JpaPessoaServiceTests extends PessoaServiceContractTests {
+
+    @Autowired
+    private PessoaService service;
+
+    @Autowired
+    private PessoaRepository repository;
+
+    @Autowired
+    private DuplicatePessoaDetector duplicateDetector;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Os testes herdados não rodam na transação do @DataJpaTest; cada um
+    // começa com a tabela vazia
+    @BeforeEach
+    void limpar() {
+        repository.deleteAllInBatch();
+        duplicateDetector.reconstruir();
+    }
+
+    @Override
+    protected PessoaService service() {
+        return service;
+    }
+
+    @Test
+    void preencheChaveDeRegistrosGravadosAntesDaRestricao() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        LocalDate nascimento = LocalDate.of(1970, 1, 1);
+        String insert = "INSERT INTO pessoas_table (dt_nascimento, nome, ativo, nome_chave) VALUES (?, ?, TRUE, NULL)";
+        jdbc.update(insert, nascimento, "Antônio");
+        jdbc.update(insert, nascimento, "antonio");
+        jdbc.update(insert, nascimento.plusDays(1), "Bia");
+
+        // A segunda linha repete a chave da primeira e fica de fora
+        assertThat(repository.preencherChavesDeDuplicidade()).isEqualTo(2);
+        assertThat(repository.preencherChavesDeDuplicidade()).isEqualTo(0);
+        duplicateDetector.reconstruir();
+
+        assertThatThrownBy(() -> service.salvar(new Pessoa(null, nascimento, "ANTONIO", true)))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> service.salvar(new Pessoa(null, nascimento.plusDays(1), "bia", true)))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void duplicataAntigaSemChaveContinuaAtualizavel() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        LocalDate nascimento = LocalDate.of(1970, 1, 1);
+        String insert = "INSERT INTO pessoas_table (dt_nascimento, nome, ativo, nome_chave) VALUES (?, ?, TRUE, NULL)";
+        jdbc.update(insert, nascimento, "Antônio");
+        jdbc.update(insert, nascimento, "antonio");
+        repository.preencherChavesDeDuplicidade();
+        Long legada = jdbc.queryForObject("SELECT id FROM pessoas_table WHERE nome_chave IS NULL", Long.class);
+
+        // Mesmo nome normalizado e mesma data: a linha segue sem chave
+        Pessoa atualizada = service.atualizar(new Pessoa(legada, nascimento, "Antonio", false));
+        assertThat(atualizada.getAtivo()).isFalse();
+        assertThat(jdbc.queryForObject("SELECT nome_chave FROM pessoas_table WHERE id = ?", String.class, legada))
+                .isNull();
+
+        // Trocar o nome para o de outra pessoa cai na restrição
+        service.salvar(new Pessoa(null, nascimento, "Bia", true));
+        assertThatThrownBy(() -> service.atualizar(new Pessoa(legada, nascimento, "bia", true)))
+                .isInstanceOf(ValidationException.class);
+
+        // Com um nome livre, a linha passa a ter chave
+        service.atualizar(new Pessoa(legada, nascimento, "Antônio Carlos", true));
+        assertThat(jdbc.queryForObject("SELECT nome_chave FROM pessoas_table WHERE id = ?", String.class, legada))
+                .isEqualTo("antonio carlos");
+    }
+
+    @Test
+    void outraViolacaoDeIntegridadeNaoViraPessoaDuplicada() {
+        String nomeLongo = "a".repeat(300);
+
+        assertThatThrownBy(() -> service.salvar(new Pessoa(null, LocalDate.of(1990, 1, 1), nomeLongo, true)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.fatec.modulo1.pessoa_api.services;
+
+import br.com.fatec.modulo1.pessoa_api.Benchmark;
+import br.com.fatec.modulo1.pessoa_api.Benchmark.Resultado;
+import br.com.fatec.modulo1.pessoa_api.duplicates.DuplicatePessoaDetector;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import br.com.fatec.modulo1.pessoa_api.repository.PessoaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a listagem com entidades completas e a listagem projetada (?campos=id,nome):
+ * latência e bytes alocados por página, incluindo a serialização JSON.
+ * Só roda quando habilitado: ./mvnw test -Dtest=ListagemBenchmarkTests -Dbenchmark=true
+ */
+@DataJpaTest
+@AutoConfigureJson
+@Import({PessoaService.class, DuplicatePessoaDetector.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.br.com.fatec.modulo1.pessoa_api=WARN",
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:listagem_benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ListagemBenchmarkTests {
+
+    private static final int PESSOAS = 5_000;
+    private static final int ITERACOES = 500;
+
+    @Autowired
+    private PessoaService service;
+
+    @Autowired
+    private PessoaRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void popular() {
+        if (repository.count() > 0) {
+            return;
+        }
+        List<Pessoa> pessoas = new ArrayList<>(PESSOAS);
+        for (int i = 0; i < PESSOAS; i++) {
+            pessoas.add(new Pessoa(null, LocalDate.of(1970, 1, 1).plusDays(i), "Pessoa " + i, i % 10 != 0));
+        }
+        repository.saveAll(pessoas);
+    }
+
+    @Test
+    void entidadeCompletaVersusProjecao() throws Exception {
+        Resultado completa = Benchmark.medir("entidade completa", ITERACOES,
+                i -> objectMapper.writeValueAsBytes(service.listar(i % 100)));
+        Resultado projecao = Benchmark.medir("projeção id,nome", ITERACOES,
+                i -> objectMapper.writeValueAsBytes(service.listarCampos(i % 100, "id,nome")));
+
+        int jsonCompleto = objectMapper.writeValueAsBytes(service.listar(0)).length;
+        int jsonProjecao = objectMapper.writeValueAsBytes(service.listarCampos(0, "id,nome")).length;
+        System.out.printf("JSON por página: %d bytes (completa) / %d bytes (projeção)%n", jsonCompleto, jsonProjecao);
+
+        assertThat(jsonProjecao).isLessThan(jsonCompleto);
+        assertThat(projecao.bytesPorOperacao()).isLessThan(completa.bytesPorOperacao());
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.fatec.modulo1.pessoa_api.services;
+
+import br.com.fatec.modulo1.pessoa_api.duplicates.DuplicatePessoaDetector;
+import br.com.fatec.modulo1.pessoa_api.events.PessoaChangedEvent;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import br.com.fatec.modulo1.pessoa_api.repository.mmap.MappedPessoaStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Contrato do PessoaService sobre o MappedPessoaStore, mais a recuperação
+ * do log após reabertura, final corrompido e compactação.
+ */
+class MappedPessoaServiceTests extends PessoaServiceContractTests {
+
+    @TempDir
+    Path diretorio;
+
+    private MappedPessoaStore store;
+    private PessoaService service;
+
+    @BeforeEach
+    void abrir() {
+        reabrir();
+    }
+
+    @AfterEach
+    void fechar() {
+        store.destroy();
+    }
+
+    @Override
+    protected PessoaService service() {
+        return service;
+    }
+
+    @Test
+    void reaberturaReproduzOLog() {
+        Pessoa ana = service.salvar(pessoa("Ana", true));
+        Pessoa bia = service.salvar(pessoa("Bia", true));
+        service.atualizar(new Pessoa(ana.getId(), ana.getDt_nascimento(), "Ana Maria", true));
+        service.deletarPorId(bia.getId());
+
+        store.destroy();
+        reabrir();
+
+        assertThat(service.listar(0).getContent()).extracting(Pessoa::getId, Pessoa::getNome)
+                .containsExactly(tuple(ana.getId(), "Ana Maria"));
+        assertThat(service.salvar(pessoa("Carla", true)).getId()).isGreaterThan(bia.getId());
+    }
+
+    @Test
+    void reaberturaReconstroiAsChavesDeDuplicidade() {
+        Pessoa ana = service.salvar(pessoa("Ana", true));
+        Pessoa bia = service.salvar(pessoa("Bia", true));
+        service.deletarPorId(bia.getId());
+
+        store.destroy();
+        reabrir();
+
+        assertThat(store.existsByNomeAndNascimento(" ANA", ana.getDt_nascimento())).isTrue();
+        assertThat(store.existsByNomeAndNascimento("Bia", bia.getDt_nascimento())).isFalse();
+        assertThat(service.salvar(new Pessoa(null, bia.getDt_nascimento(), "Bia", true)).getId()).isNotNull();
+    }
+
+    @Test
+    void registroIncompletoNoFinalEDescartado() throws IOException {
+        Pessoa ana = service.salvar(pessoa("Ana", true));
+        Pessoa bia = service.salvar(pessoa("Bia", true));
+        store.destroy();
+
+        // Simula uma escrita interrompida: o CRC do último registro não confere
+        byte[] conteudo = Files.readAllBytes(arquivo());
+        int posicaoNome = new String(conteudo, StandardCharsets.ISO_8859_1).lastIndexOf("Bia");
+        conteudo[posicaoNome] = 'X';
+        Files.write(arquivo(), conteudo);
+        reabrir();
+
+        assertThat(service.listar(0).getContent()).extracting(Pessoa::getId).containsExactly(ana.getId());
+        Pessoa carla = service.salvar(pessoa("Carla", true));
+        store.destroy();
+        reabrir();
+        assertThat(service.listar(0).getContent()).extracting(Pessoa::getId)
+                .containsExactly(ana.getId(), carla.getId());
+        assertThat(carla.getId()).isGreaterThan(bia.getId());
+    }
+
+    @Test
+    void compactacaoMantemApenasRegistrosVivos() throws IOException {
+        Pessoa ana = service.salvar(pessoa("Ana", true));
+        for (int i = 0; i < 200; i++) {
+            service.atualizar(new Pessoa(ana.getId(), ana.getDt_nascimento(), "Ana " + i, true));
+        }
+        Pessoa bia = service.salvar(pessoa("Bia", false));
+        long antes;
+        try (FileChannel canal = FileChannel.open(arquivo(), StandardOpenOption.READ)) {
+            antes = ultimoByteUsado(canal);
+        }
+
+        store.compactarSeNecessario();
+
+        try (FileChannel canal = FileChannel.open(arquivo(), StandardOpenOption.READ)) {
+            assertThat(ultimoByteUsado(canal)).isLessThan(antes / 10);
+        }
+        assertThat(service.listar(0).getContent()).extracting(Pessoa::getNome).containsExactly("Ana 199");
+        assertThat(store.findById(bia.getId())).isPresent();
+
+        store.destroy();
+        reabrir();
+        assertThat(service.listar(0).getContent()).extracting(Pessoa::getNome).containsExactly("Ana 199");
+        assertThat(service.salvar(pessoa("Carla", true)).getId()).isGreaterThan(bia.getId());
+    }
+
+    private void reabrir() {
+        ObjectProvider<MeterRegistry> semMetricas = new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class);
+        store = new MappedPessoaStore(arquivo(), 4096, false, 0.5, 0, semMetricas);
+        DuplicatePessoaDetector duplicateDetector = new DuplicatePessoaDetector(store, 1000, 0.01, semMetricas);
+        duplicateDetector.reconstruir();
+        service = new PessoaService(store, evento -> {
+            if (evento instanceof PessoaChangedEvent alteracao) {
+                duplicateDetector.onPessoaChanged(alteracao);
+            }
+        }, duplicateDetector);
+    }
+
+    private Path arquivo() {
+        return diretorio.resolve("pessoas.log");
+    }
+
+    /**
+     * Posição logo após o último byte não nulo do arquivo (fim do log).
+     */
+    private static long ultimoByteUsado(FileChannel canal) throws IOException {
+        ByteBuffer conteudo = ByteBuffer.allocate((int) canal.size());
+        canal.read(conteudo, 0);
+        int fim = conteudo.capacity();
+        while (fim > 0 && conteudo.get(fim - 1) == 0) {
+            fim--;
+        }
+        return fim;
+    }
+}
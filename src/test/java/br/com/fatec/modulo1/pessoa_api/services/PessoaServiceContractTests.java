@@ -0,0 +1,214 @@
+package br.com.fatec.modulo1.pessoa_api.services;
+
+import br.com.fatec.modulo1.pessoa_api.dto.PessoaParcial;
+import br.com.fatec.modulo1.pessoa_api.exceptions.ResourceNotFoundException;
+import br.com.fatec.modulo1.pessoa_api.exceptions.ValidationException;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Comportamento do PessoaService que todo backend de PessoaStore deve
+ * respeitar. Cada backend estende esta classe e fornece o service.
+ */
+abstract class PessoaServiceContractTests {
+
+    protected abstract PessoaService service();
+
+    @Test
+    void salvarAtribuiIdEListarEncontra() {
+        Pessoa salva = service().salvar(pessoa("Ana", true));
+
+        assertThat(salva.getId()).isNotNull().isPositive();
+        assertThat(service().listar(0).getContent())
+                .extracting(Pessoa::getId, Pessoa::getNome)
+                .containsExactly(tuple(salva.getId(), "Ana"));
+    }
+
+    @Test
+    void salvarRejeitaIdInformadoENomeVazio() {
+        assertThatThrownBy(() -> service().salvar(new Pessoa(99L, LocalDate.of(1990, 1, 1), "Ana", true)))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> service().salvar(pessoa("", true)))
+                .isInstanceOf(ValidationException.class);
+        assertThat(service().listar(0).getTotalElements()).isZero();
+    }
+
+    @Test
+    void listarTrazSoAtivosOrdenadosPorNomeEId() {
+        Pessoa carla1 = service().salvar(pessoa("Carla", true));
+        service().salvar(pessoa("Bruno", false));
+        Pessoa ana = service().salvar(pessoa("Ana", true));
+        Pessoa carla2 = service().salvar(pessoa("Carla", true));
+
+        Page<Pessoa> pagina = service().listar(0);
+
+        assertThat(pagina.getTotalElements()).isEqualTo(3);
+        assertThat(pagina.getContent()).extracting(Pessoa::getId)
+                .containsExactly(ana.getId(), carla1.getId(), carla2.getId());
+    }
+
+    @Test
+    void listarPaginaDeDezEmDez() {
+        for (int i = 0; i < 25; i++) {
+            service().salvar(pessoa(String.format("Pessoa %02d", i), true));
+        }
+
+        Page<Pessoa> terceira = service().listar(2);
+
+        assertThat(terceira.getTotalElements()).isEqualTo(25);
+        assertThat(terceira.getTotalPages()).isEqualTo(3);
+        assertThat(terceira.getContent()).extracting(Pessoa::getNome)
+                .containsExactly("Pessoa 20", "Pessoa 21", "Pessoa 22", "Pessoa 23", "Pessoa 24");
+        assertThat(service().listar(-1).getContent()).extracting(Pessoa::getNome)
+                .first().isEqualTo("Pessoa 00");
+    }
+
+    @Test
+    void listarCamposDevolveSoOsCamposPedidos() {
+        Pessoa ana = service().salvar(pessoa("Ana", true));
+
+        List<PessoaParcial> conteudo = service().listarCampos(0, "id, nome").getContent();
+
+        assertThat(conteudo).containsExactly(new PessoaParcial(ana.getId(), null, "Ana", null));
+        assertThatThrownBy(() -> service().listarCampos(0, "id,senha"))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void atualizarAlteraDadosEDesativaDaListagem() {
+        Pessoa ana = service().salvar(pessoa("Ana", true));
+
+        Pessoa atualizada = service().atualizar(new Pessoa(ana.getId(), LocalDate.of(1985, 5, 5), "Ana Maria", true));
+        assertThat(atualizada.getNome()).isEqualTo("Ana Maria");
+        assertThat(service().listar(0).getContent()).extracting(Pessoa::getNome).containsExactly("Ana Maria");
+
+        service().atualizar(new Pessoa(ana.getId(), LocalDate.of(1985, 5, 5), "Ana Maria", false));
+        assertThat(service().listar(0).getTotalElements()).isZero();
+    }
+
+    @Test
+    void atualizarInexistenteLancaNotFound() {
+        assertThatThrownBy(() -> service().atualizar(new Pessoa(123456L, LocalDate.of(1990, 1, 1), "X", true)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service().atualizar(pessoa("Sem id", true)))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void deletarRemoveEValidaId() {
+        Pessoa ana = service().salvar(pessoa("Ana", true));
+        Pessoa bia = service().salvar(pessoa("Bia", true));
+
+        service().deletarPorId(ana.getId());
+
+        assertThat(service().listar(0).getContent()).extracting(Pessoa::getId).containsExactly(bia.getId());
+        assertThatThrownBy(() -> service().deletarPorId(ana.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service().deletarPorId(0L))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void salvarRejeitaDuplicadaMesmoNomeENascimento() {
+        LocalDate nascimento = LocalDate.of(1980, 3, 15);
+        Pessoa ana = service().salvar(new Pessoa(null, nascimento, "Ana", false));
+
+        assertThatThrownBy(() -> service().salvar(new Pessoa(null, nascimento, "Ana", true)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("mesmo nome e data de nascimento");
+        assertThat(service().salvar(new Pessoa(null, nascimento.plusDays(1), "Ana", true)).getId()).isNotNull();
+        assertThat(service().salvar(new Pessoa(null, nascimento, "Ana Maria", true)).getId()).isNotNull();
+
+        service().deletarPorId(ana.getId());
+        assertThat(service().salvar(new Pessoa(null, nascimento, "Ana", true)).getId()).isNotNull();
+    }
+
+    @Test
+    void duplicidadeIgnoraMaiusculasAcentosEEspacos() {
+        LocalDate nascimento = LocalDate.of(1975, 7, 20);
+        service().salvar(new Pessoa(null, nascimento, "José da Conceição", true));
+
+        for (String variacao : List.of("jose da conceicao", "  JOSÉ DA CONCEIÇÃO ", "Jose da Conceicao")) {
+            assertThatThrownBy(() -> service().salvar(new Pessoa(null, nascimento, variacao, true)))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("mesmo nome e data de nascimento");
+        }
+        assertThat(service().salvar(new Pessoa(null, nascimento, "José da Conceição Filho", true)).getId()).isNotNull();
+        assertThat(service().listar(0).getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void atualizarParaNomeENascimentoDeOutraPessoaERejeitado() {
+        LocalDate nascimento = LocalDate.of(1982, 11, 2);
+        service().salvar(new Pessoa(null, nascimento, "Ana", true));
+        Pessoa bia = service().salvar(pessoa("Bia", true));
+
+        assertThatThrownBy(() -> service().atualizar(new Pessoa(bia.getId(), nascimento, "ANA", true)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("mesmo nome e data de nascimento");
+        assertThat(service().listar(0).getContent()).extracting(Pessoa::getNome).containsExactly("Ana", "Bia");
+
+        // Manter a própria chave, mudando só a grafia, continua permitido
+        assertThat(service().atualizar(new Pessoa(bia.getId(), bia.getDt_nascimento(), "BIA", false)).getNome())
+                .isEqualTo("BIA");
+    }
+
+    @Test
+    void criacoesSimultaneasDaMesmaPessoaGravamUmaSo() throws Exception {
+        int threads = 8;
+        LocalDate nascimento = LocalDate.of(1999, 9, 9);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Pessoa>> criacoes = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                criacoes.add(executor.submit(() -> {
+                    largada.await();
+                    return service().salvar(new Pessoa(null, nascimento, "Concorrente", true));
+                }));
+            }
+            largada.countDown();
+
+            int gravadas = 0;
+            for (Future<Pessoa> criacao : criacoes) {
+                try {
+                    criacao.get(30, TimeUnit.SECONDS);
+                    gravadas++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(ValidationException.class)
+                            .hasMessageContaining("mesmo nome e data de nascimento");
+                }
+            }
+            assertThat(gravadas).isEqualTo(1);
+            assertThat(service().listar(0).getTotalElements()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cada pessoa criada nos testes recebe uma data de nascimento diferente,
+     * para não cair na regra de duplicidade por nome e data.
+     */
+    protected static Pessoa pessoa(String nome, boolean ativo) {
+        return new Pessoa(null, LocalDate.of(1990, 1, 1).plusDays(SEQUENCIA.incrementAndGet()), nome, ativo);
+    }
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+}
@@ -0,0 +1,78 @@
+package br.com.fatec.modulo1.pessoa_api.services;
+
+import br.com.fatec.modulo1.pessoa_api.duplicates.DuplicatePessoaDetector;
+import br.com.fatec.modulo1.pessoa_api.events.PessoaChangedEvent;
+import br.com.fatec.modulo1.pessoa_api.model.Pessoa;
+import br.com.fatec.modulo1.pessoa_api.repository.sharding.ShardedPessoaStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contrato do PessoaService sobre o ShardedPessoaStore com 3 shards H2,
+ * mais a ordem do merge entre shards.
+ */
+class ShardedPessoaServiceTests extends PessoaServiceContractTests {
+
+    private ShardedPessoaStore store;
+    private PessoaService service;
+
+    @BeforeEach
+    void abrir() {
+        String prefixo = "jdbc:h2:mem:shard_" + UUID.randomUUID() + "_";
+        List<String> urls = IntStream.range(0, 3)
+                .mapToObj(i -> prefixo + i + ";DB_CLOSE_DELAY=-1")
+                .toList();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        ObjectProvider<MeterRegistry> metricas = beans.getBeanProvider(MeterRegistry.class);
+        store = new ShardedPessoaStore(urls, "sa", "", 4, 10, metricas);
+        DuplicatePessoaDetector duplicateDetector = new DuplicatePessoaDetector(store, 1000, 0.01, metricas);
+        duplicateDetector.reconstruir();
+        service = new PessoaService(store, evento -> {
+            if (evento instanceof PessoaChangedEvent alteracao) {
+                duplicateDetector.onPessoaChanged(alteracao);
+            }
+        }, duplicateDetector);
+    }
+
+    @AfterEach
+    void fechar() {
+        store.destroy();
+    }
+
+    @Override
+    protected PessoaService service() {
+        return service;
+    }
+
+    @Test
+    void mergeSegueAOrdemDosShardsComMaiusculasEAcentos() {
+        List<String> nomes = List.of("bruno", "Álvaro", "Carla", "ana", "Zeca", "Édson", "alice", "Bruno",
+                "álvaro", "Ana", "carla", "Ícaro", "zeca", "edson", "Alvaro", "Íris", "bia", "Bia", "Ópera", "ana");
+        List<Pessoa> salvas = new ArrayList<>();
+        for (String nome : nomes) {
+            salvas.add(service.salvar(pessoa(nome, true)));
+        }
+
+        List<Pessoa> listadas = new ArrayList<>(service.listar(0).getContent());
+        listadas.addAll(service.listar(1).getContent());
+
+        List<Pessoa> esperadas = new ArrayList<>(salvas);
+        esperadas.sort(Comparator.comparing(Pessoa::getNome).thenComparing(Pessoa::getId));
+        assertThat(listadas).extracting(Pessoa::getId)
+                .containsExactlyElementsOf(esperadas.stream().map(Pessoa::getId).toList());
+    }
+}